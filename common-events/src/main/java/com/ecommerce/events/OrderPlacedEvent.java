@@ -1,9 +1,10 @@
-package com.ecommerce.notificationservice;
+package com.ecommerce.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// Published by order-service on notificationTopic. Schema: EventSchemas.ORDER_PLACED
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
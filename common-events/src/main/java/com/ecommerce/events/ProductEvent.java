@@ -1,4 +1,4 @@
-package com.ecommerce.inventoryservice.dto;
+package com.ecommerce.events;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.util.UUID;
 
+// Published on product-events and consumed by inventory-service. Schema: EventSchemas.PRODUCT
 @Data
 @Builder
 @AllArgsConstructor
@@ -17,5 +18,5 @@ public class ProductEvent {
 	private String productTitle;
 	private Integer quantity;
 	private String eventType; // CREATED, UPDATED, DELETED
+	private Long version; // per-SKU, increasing; null for producers that don't version their events
 }
-
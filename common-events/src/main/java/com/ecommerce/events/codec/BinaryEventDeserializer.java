@@ -0,0 +1,55 @@
+package com.ecommerce.events.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+// Decodes with the local (latest) schema of the payload's subject; older and newer writer versions both work since
+// missing tags stay null and unknown tags are skipped. While producers migrate, payloads without the magic byte
+// can be read as JSON into the type named by LEGACY_JSON_TYPE
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+	public static final String LEGACY_JSON_TYPE = "binary.event.legacy.json.type";
+
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	private Class<?> legacyJsonType;
+
+	@Override
+	public void configure(Map<String, ?> configs, boolean isKey) {
+		Object type = configs.get(LEGACY_JSON_TYPE);
+		if (type instanceof Class<?> clazz) {
+			legacyJsonType = clazz;
+		} else if (type != null) {
+			try {
+				legacyJsonType = Class.forName(type.toString());
+			} catch (ClassNotFoundException e) {
+				throw new IllegalArgumentException("Unknown " + LEGACY_JSON_TYPE + ": " + type, e);
+			}
+		}
+	}
+
+	@Override
+	public Object deserialize(String topic, byte[] data) {
+		if (data == null) {
+			return null;
+		}
+		try {
+			if (data.length > 0 && data[0] == BinaryEventSerializer.MAGIC) {
+				BinaryReader reader = new BinaryReader(data, 1);
+				EventSchema<?> schema = EventSchemas.REGISTRY.forSubjectId((int) reader.readVarint());
+				reader.readVarint(); // writer version, informational: decoding is tag-based
+				return schema.decoder().decode(reader);
+			}
+			if (legacyJsonType != null) {
+				return objectMapper.readValue(data, legacyJsonType);
+			}
+		} catch (Exception e) {
+			throw new SerializationException("Unable to deserialize event from " + topic, e);
+		}
+		throw new SerializationException("Payload on " + topic + " is not a binary event");
+	}
+}
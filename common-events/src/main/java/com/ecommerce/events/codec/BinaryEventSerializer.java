@@ -0,0 +1,29 @@
+package com.ecommerce.events.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+// Wire format: magic byte, varint subject id, varint schema version, then the tagged fields of that version
+public class BinaryEventSerializer implements Serializer<Object> {
+
+	static final byte MAGIC = 0x1;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public byte[] serialize(String topic, Object event) {
+		if (event == null) {
+			return null;
+		}
+		try {
+			EventSchema<Object> schema = (EventSchema<Object>) EventSchemas.REGISTRY.forType(event.getClass());
+			BinaryWriter writer = new BinaryWriter(64);
+			writer.writeVarint(MAGIC);
+			writer.writeVarint(schema.subjectId());
+			writer.writeVarint(schema.version());
+			schema.encoder().encode(event, writer);
+			return writer.toByteArray();
+		} catch (RuntimeException e) {
+			throw new SerializationException("Unable to serialize " + event.getClass().getName() + " for " + topic, e);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.events.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+// Counterpart of BinaryWriter. Decoders loop over nextField() and skip() every tag they don't know, so payloads
+// written by a newer schema version still decode into an older event class
+public class BinaryReader {
+
+	private final byte[] buffer;
+	private int position;
+	private final int limit;
+	private int tag;
+	private WireType wireType;
+
+	public BinaryReader(byte[] buffer, int offset) {
+		this(buffer, offset, buffer.length);
+	}
+
+	// Reads only up to limit, for one message inside a larger payload
+	BinaryReader(byte[] buffer, int offset, int limit) {
+		this.buffer = buffer;
+		this.position = offset;
+		this.limit = limit;
+	}
+
+	public boolean nextField() {
+		if (position >= limit) {
+			return false;
+		}
+		long key = readVarint();
+		tag = (int) (key >>> 3);
+		wireType = WireType.of((int) (key & 0x7));
+		return true;
+	}
+
+	int position() {
+		return position;
+	}
+
+	public int tag() {
+		return tag;
+	}
+
+	public String readString() {
+		int length = readLength();
+		String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+		position += length;
+		return value;
+	}
+
+	public int readInt() {
+		expect(WireType.VARINT);
+		int value = (int) readVarint();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public long readLong() {
+		expect(WireType.VARINT);
+		long value = readVarint();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public boolean readBoolean() {
+		expect(WireType.VARINT);
+		return readVarint() != 0;
+	}
+
+	public UUID readUuid() {
+		if (readLength() != 16) {
+			throw new IllegalStateException("UUID field " + tag + " is not 16 bytes");
+		}
+		return new UUID(readFixed64(), readFixed64());
+	}
+
+	public void skip() {
+		if (wireType == WireType.VARINT) {
+			readVarint();
+		} else {
+			// Read the length first: "position += readLength()" would add it to the position before the length
+			int length = readLength();
+			position += length;
+		}
+	}
+
+	long readVarint() {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			if (position >= limit) {
+				throw new IllegalStateException("Truncated varint");
+			}
+			byte b = buffer[position++];
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalStateException("Malformed varint");
+	}
+
+	private int readLength() {
+		expect(WireType.LENGTH_DELIMITED);
+		int length = (int) readVarint();
+		if (length < 0 || position + length > limit) {
+			throw new IllegalStateException("Field " + tag + " overruns the payload");
+		}
+		return length;
+	}
+
+	private long readFixed64() {
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value = (value << 8) | (buffer[position++] & 0xFF);
+		}
+		return value;
+	}
+
+	// A tag that changed wire type between versions is a schema-compatibility violation, not something to guess at
+	private void expect(WireType expected) {
+		if (wireType != expected) {
+			throw new IllegalStateException("Field " + tag + " has wire type " + wireType + ", expected " + expected);
+		}
+	}
+}
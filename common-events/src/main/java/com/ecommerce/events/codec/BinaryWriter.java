@@ -0,0 +1,101 @@
+package com.ecommerce.events.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+// Tagged binary encoding: every field is a varint key (tag << 3 | wire type) followed by its value. Null fields
+// are simply not written, which is also how readers see fields added by newer schema versions
+public class BinaryWriter {
+
+	private byte[] buffer;
+	private int position;
+
+	public BinaryWriter(int initialCapacity) {
+		this.buffer = new byte[initialCapacity];
+	}
+
+	public BinaryWriter writeString(int tag, String value) {
+		if (value != null) {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeKey(tag, WireType.LENGTH_DELIMITED);
+			writeVarint(bytes.length);
+			writeBytes(bytes);
+		}
+		return this;
+	}
+
+	public BinaryWriter writeInt(int tag, Integer value) {
+		if (value != null) {
+			writeKey(tag, WireType.VARINT);
+			writeVarint(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+		}
+		return this;
+	}
+
+	public BinaryWriter writeLong(int tag, Long value) {
+		if (value != null) {
+			writeKey(tag, WireType.VARINT);
+			writeVarint((value << 1) ^ (value >> 63));
+		}
+		return this;
+	}
+
+	public BinaryWriter writeBoolean(int tag, Boolean value) {
+		if (value != null) {
+			writeKey(tag, WireType.VARINT);
+			writeVarint(value ? 1 : 0);
+		}
+		return this;
+	}
+
+	public BinaryWriter writeUuid(int tag, UUID value) {
+		if (value != null) {
+			writeKey(tag, WireType.LENGTH_DELIMITED);
+			writeVarint(16);
+			writeFixed64(value.getMostSignificantBits());
+			writeFixed64(value.getLeastSignificantBits());
+		}
+		return this;
+	}
+
+	void writeVarint(long value) {
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[position++] = (byte) value;
+	}
+
+	public int size() {
+		return position;
+	}
+
+	public byte[] toByteArray() {
+		return Arrays.copyOf(buffer, position);
+	}
+
+	private void writeKey(int tag, WireType wireType) {
+		writeVarint(((long) tag << 3) | wireType.id());
+	}
+
+	private void writeFixed64(long value) {
+		ensureCapacity(8);
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			buffer[position++] = (byte) (value >>> shift);
+		}
+	}
+
+	void writeBytes(byte[] bytes) {
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	private void ensureCapacity(int additional) {
+		if (position + additional > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.events.codec;
+
+import java.util.Map;
+
+// One version of an event's wire schema. fields maps every tag the version writes to its wire type; the registry
+// uses it to reject versions that reuse a tag with a different type
+public record EventSchema<T>(int subjectId, String subject, int version, Class<T> type,
+							 Map<Integer, WireType> fields, Encoder<T> encoder, Decoder<T> decoder) {
+
+	@FunctionalInterface
+	public interface Encoder<T> {
+		void encode(T event, BinaryWriter writer);
+	}
+
+	@FunctionalInterface
+	public interface Decoder<T> {
+		T decode(BinaryReader reader);
+	}
+}
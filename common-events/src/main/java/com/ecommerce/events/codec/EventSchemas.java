@@ -0,0 +1,87 @@
+package com.ecommerce.events.codec;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.events.ProductEvent;
+
+import java.util.Map;
+
+// Wire schemas of the shared events. To evolve an event, add a field with a new tag and register the next
+// version after the current one; never reuse or retype a tag. Subject ids are part of the wire format
+public final class EventSchemas {
+
+	public static final EventSchema<OrderPlacedEvent> ORDER_PLACED = new EventSchema<>(1, "order-placed", 1,
+			OrderPlacedEvent.class,
+			Map.of(1, WireType.LENGTH_DELIMITED),
+			(event, writer) -> writer.writeString(1, event.getOrderNumber()),
+			reader -> {
+				OrderPlacedEvent event = new OrderPlacedEvent();
+				while (reader.nextField()) {
+					switch (reader.tag()) {
+						case 1 -> event.setOrderNumber(reader.readString());
+						default -> reader.skip();
+					}
+				}
+				return event;
+			});
+
+	// Kept registered so the registry checks v2 against it; the serializer always writes the latest version
+	static final EventSchema<ProductEvent> PRODUCT_V1 = new EventSchema<>(2, "product", 1,
+			ProductEvent.class,
+			Map.of(1, WireType.LENGTH_DELIMITED,
+					2, WireType.LENGTH_DELIMITED,
+					3, WireType.LENGTH_DELIMITED,
+					4, WireType.VARINT,
+					5, WireType.LENGTH_DELIMITED),
+			(event, writer) -> writer
+					.writeUuid(1, event.getProductId())
+					.writeString(2, event.getSku())
+					.writeString(3, event.getProductTitle())
+					.writeInt(4, event.getQuantity())
+					.writeString(5, event.getEventType()),
+			EventSchemas::decodeProduct);
+
+	// v2 adds the per-SKU version (tag 6); v1 payloads decode with a null version
+	public static final EventSchema<ProductEvent> PRODUCT = new EventSchema<>(2, "product", 2,
+			ProductEvent.class,
+			Map.of(1, WireType.LENGTH_DELIMITED,
+					2, WireType.LENGTH_DELIMITED,
+					3, WireType.LENGTH_DELIMITED,
+					4, WireType.VARINT,
+					5, WireType.LENGTH_DELIMITED,
+					6, WireType.VARINT),
+			(event, writer) -> writer
+					.writeUuid(1, event.getProductId())
+					.writeString(2, event.getSku())
+					.writeString(3, event.getProductTitle())
+					.writeInt(4, event.getQuantity())
+					.writeString(5, event.getEventType())
+					.writeLong(6, event.getVersion()),
+			EventSchemas::decodeProduct);
+
+	public static final SchemaRegistry REGISTRY = new SchemaRegistry();
+
+	static {
+		REGISTRY.register(ORDER_PLACED);
+		REGISTRY.register(PRODUCT_V1);
+		REGISTRY.register(PRODUCT);
+	}
+
+	private EventSchemas() {
+	}
+
+	private static ProductEvent decodeProduct(BinaryReader reader) {
+		ProductEvent event = new ProductEvent();
+		while (reader.nextField()) {
+			switch (reader.tag()) {
+				case 1 -> event.setProductId(reader.readUuid());
+				case 2 -> event.setSku(reader.readString());
+				case 3 -> event.setProductTitle(reader.readString());
+				case 4 -> event.setQuantity(reader.readInt());
+				case 5 -> event.setEventType(reader.readString());
+				case 6 -> event.setVersion(reader.readLong());
+				default -> reader.skip();
+			}
+		}
+		return event;
+	}
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.events.codec;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-process stand-in for a schema registry. Versions of a subject must be registered in order and may only add
+// tags; a tag keeps its wire type forever, so every version can read every other version's payloads
+public class SchemaRegistry {
+
+	private final Map<Integer, EventSchema<?>> latestBySubjectId = new ConcurrentHashMap<>();
+	private final Map<Class<?>, EventSchema<?>> latestByType = new ConcurrentHashMap<>();
+	private final Map<Integer, Map<Integer, WireType>> knownFieldsBySubjectId = new ConcurrentHashMap<>();
+
+	public synchronized <T> void register(EventSchema<T> schema) {
+		EventSchema<?> latest = latestBySubjectId.get(schema.subjectId());
+		if (latest != null) {
+			if (!latest.subject().equals(schema.subject())) {
+				throw new IllegalArgumentException("Subject id " + schema.subjectId() + " is already used by " + latest.subject());
+			}
+			if (schema.version() <= latest.version()) {
+				throw new IllegalArgumentException(schema.subject() + " v" + schema.version()
+						+ " is not newer than registered v" + latest.version());
+			}
+		}
+
+		Map<Integer, WireType> knownFields = knownFieldsBySubjectId.getOrDefault(schema.subjectId(), Map.of());
+		schema.fields().forEach((tag, wireType) -> {
+			WireType previous = knownFields.get(tag);
+			if (previous != null && previous != wireType) {
+				throw new IllegalArgumentException(schema.subject() + " v" + schema.version() + " changes tag " + tag
+						+ " from " + previous + " to " + wireType);
+			}
+		});
+		// Tags dropped by a later version stay reserved
+		Map<Integer, WireType> merged = new HashMap<>(knownFields);
+		merged.putAll(schema.fields());
+		knownFieldsBySubjectId.put(schema.subjectId(), merged);
+
+		latestBySubjectId.put(schema.subjectId(), schema);
+		latestByType.put(schema.type(), schema);
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T> EventSchema<T> forType(Class<T> type) {
+		EventSchema<T> schema = (EventSchema<T>) latestByType.get(type);
+		if (schema == null) {
+			throw new IllegalArgumentException("No schema registered for " + type.getName());
+		}
+		return schema;
+	}
+
+	public EventSchema<?> forSubjectId(int subjectId) {
+		EventSchema<?> schema = latestBySubjectId.get(subjectId);
+		if (schema == null) {
+			throw new IllegalArgumentException("Unknown schema subject id " + subjectId);
+		}
+		return schema;
+	}
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.events.codec;
+
+import java.util.function.BiConsumer;
+
+// Binary body of inventory-service's availability endpoint: a sequence of varint length-prefixed messages, one per
+// SKU, each holding the SKU (tag 1) and, when inventory-service knows the SKU, its available quantity (tag 2)
+public final class SkuAvailabilityCodec {
+
+	public static final String MEDIA_TYPE = "application/x-sku-availability";
+
+	private static final int SKU_CODE = 1;
+	private static final int QUANTITY = 2;
+
+	private SkuAvailabilityCodec() {
+	}
+
+	public static void encode(BinaryWriter writer, String skuCode, Integer quantity) {
+		byte[] message = new BinaryWriter(skuCode.length() + 16)
+				.writeString(SKU_CODE, skuCode)
+				.writeInt(QUANTITY, quantity)
+				.toByteArray();
+		writer.writeVarint(message.length);
+		writer.writeBytes(message);
+	}
+
+	// Hands each entry to the consumer with a null quantity for unknown SKUs
+	public static void decode(byte[] payload, BiConsumer<String, Integer> consumer) {
+		int position = 0;
+		while (position < payload.length) {
+			BinaryReader framing = new BinaryReader(payload, position);
+			int length = (int) framing.readVarint();
+			int start = framing.position();
+			if (length < 0 || start + length > payload.length) {
+				throw new IllegalStateException("Availability entry at " + position + " overruns the payload");
+			}
+			BinaryReader message = new BinaryReader(payload, start, start + length);
+			String skuCode = null;
+			Integer quantity = null;
+			while (message.nextField()) {
+				switch (message.tag()) {
+					case SKU_CODE -> skuCode = message.readString();
+					case QUANTITY -> quantity = message.readInt();
+					default -> message.skip();
+				}
+			}
+			consumer.accept(skuCode, quantity);
+			position = start + length;
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.events.codec;
+
+// How a field value is laid out on the wire; a reader can skip any field from its wire type alone
+public enum WireType {
+	VARINT,
+	LENGTH_DELIMITED;
+
+	static WireType of(int id) {
+		return switch (id) {
+			case 0 -> VARINT;
+			case 2 -> LENGTH_DELIMITED;
+			default -> throw new IllegalArgumentException("Unknown wire type " + id);
+		};
+	}
+
+	int id() {
+		return this == VARINT ? 0 : 2;
+	}
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.events.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryReaderTest {
+
+	@Test
+	void readsBackEveryFieldType() {
+		UUID uuid = UUID.randomUUID();
+		byte[] payload = new BinaryWriter(4)
+				.writeString(1, "SKU-ü-✓")
+				.writeInt(2, Integer.MIN_VALUE)
+				.writeInt(3, -1)
+				.writeLong(4, Long.MAX_VALUE)
+				.writeLong(5, Long.MIN_VALUE)
+				.writeBoolean(6, true)
+				.writeUuid(7, uuid)
+				.writeInt(8, 0)
+				.toByteArray();
+
+		BinaryReader reader = new BinaryReader(payload, 0);
+		assertThat(reader.nextField()).isTrue();
+		assertThat(reader.tag()).isEqualTo(1);
+		assertThat(reader.readString()).isEqualTo("SKU-ü-✓");
+		assertThat(reader.nextField()).isTrue();
+		assertThat(reader.readInt()).isEqualTo(Integer.MIN_VALUE);
+		assertThat(reader.nextField()).isTrue();
+		assertThat(reader.readInt()).isEqualTo(-1);
+		assertThat(reader.nextField()).isTrue();
+		assertThat(reader.readLong()).isEqualTo(Long.MAX_VALUE);
+		assertThat(reader.nextField()).isTrue();
+		assertThat(reader.readLong()).isEqualTo(Long.MIN_VALUE);
+		assertThat(reader.nextField()).isTrue();
+		assertThat(reader.readBoolean()).isTrue();
+		assertThat(reader.nextField()).isTrue();
+		assertThat(reader.readUuid()).isEqualTo(uuid);
+		assertThat(reader.nextField()).isTrue();
+		assertThat(reader.tag()).isEqualTo(8);
+		assertThat(reader.readInt()).isZero();
+		assertThat(reader.nextField()).isFalse();
+	}
+
+	@Test
+	void smallValuesTakeOneByteWhateverTheirSign() {
+		assertThat(new BinaryWriter(8).writeInt(1, -64).size()).isEqualTo(2);
+		assertThat(new BinaryWriter(8).writeInt(1, 63).size()).isEqualTo(2);
+		assertThat(new BinaryWriter(8).writeInt(1, 64).size()).isEqualTo(3);
+	}
+
+	@Test
+	void nullFieldsAreNotWritten() {
+		BinaryWriter writer = new BinaryWriter(8)
+				.writeString(1, null)
+				.writeInt(2, null)
+				.writeLong(3, null)
+				.writeBoolean(4, null)
+				.writeUuid(5, null);
+
+		assertThat(writer.size()).isZero();
+		assertThat(new BinaryReader(writer.toByteArray(), 0).nextField()).isFalse();
+	}
+
+	@Test
+	void skipsUnknownFieldsOfBothWireTypes() {
+		byte[] payload = new BinaryWriter(16)
+				.writeLong(9, 123_456_789L)
+				.writeString(10, "unknown")
+				.writeUuid(11, UUID.randomUUID())
+				.writeString(1, "known")
+				.toByteArray();
+
+		List<String> known = new ArrayList<>();
+		BinaryReader reader = new BinaryReader(payload, 0);
+		while (reader.nextField()) {
+			if (reader.tag() == 1) {
+				known.add(reader.readString());
+			} else {
+				reader.skip();
+			}
+		}
+
+		assertThat(known).containsExactly("known");
+	}
+
+	@Test
+	void rejectsAFieldReadWithAnotherWireType() {
+		BinaryReader reader = new BinaryReader(new BinaryWriter(8).writeString(1, "text").toByteArray(), 0);
+		reader.nextField();
+
+		assertThatThrownBy(reader::readInt)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("wire type");
+	}
+
+	@Test
+	void rejectsTruncatedPayloads() {
+		byte[] payload = new BinaryWriter(8).writeString(1, "truncated").toByteArray();
+		BinaryReader reader = new BinaryReader(payload, 0, payload.length - 1);
+		reader.nextField();
+
+		assertThatThrownBy(reader::readString)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("overruns");
+		assertThatThrownBy(() -> new BinaryReader(new byte[]{(byte) 0x80}, 0).nextField())
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("Truncated");
+	}
+
+	@Test
+	void readsFromAnOffset() {
+		BinaryWriter writer = new BinaryWriter(8);
+		writer.writeVarint(300);
+		int offset = writer.size();
+		writer.writeInt(1, 42);
+
+		BinaryReader reader = new BinaryReader(writer.toByteArray(), 0);
+		assertThat(reader.readVarint()).isEqualTo(300);
+		assertThat(reader.position()).isEqualTo(offset);
+		BinaryReader field = new BinaryReader(writer.toByteArray(), offset);
+		assertThat(field.nextField()).isTrue();
+		assertThat(field.readInt()).isEqualTo(42);
+	}
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.events.codec;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.events.ProductEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventSchemasTest {
+
+	private final BinaryEventSerializer serializer = new BinaryEventSerializer();
+	private final BinaryEventDeserializer deserializer = new BinaryEventDeserializer();
+
+	@Test
+	void productEventRoundTrips() {
+		ProductEvent event = ProductEvent.builder()
+				.productId(UUID.randomUUID())
+				.sku("SKU-1")
+				.productTitle("Phone")
+				.quantity(-3)
+				.eventType("UPDATED")
+				.version(42L)
+				.build();
+
+		assertThat(deserializer.deserialize("product-events", serializer.serialize("product-events", event))).isEqualTo(event);
+	}
+
+	@Test
+	void orderPlacedEventRoundTrips() {
+		OrderPlacedEvent event = new OrderPlacedEvent();
+		event.setOrderNumber("01HZX3K9Q7M2T4V6W8Y0A1B2C3");
+
+		assertThat(deserializer.deserialize("notificationTopic", serializer.serialize("notificationTopic", event)))
+				.isEqualTo(event);
+	}
+
+	@Test
+	void productV1PayloadDecodesWithoutAVersion() {
+		ProductEvent event = ProductEvent.builder().sku("SKU-1").quantity(5).eventType("CREATED").version(7L).build();
+
+		ProductEvent decoded = (ProductEvent) deserializer.deserialize("product-events", encode(EventSchemas.PRODUCT_V1, event));
+
+		assertThat(decoded.getSku()).isEqualTo("SKU-1");
+		assertThat(decoded.getQuantity()).isEqualTo(5);
+		assertThat(decoded.getVersion()).isNull();
+	}
+
+	@Test
+	void payloadFromANewerVersionSkipsTheTagsItAdded() {
+		ProductEvent event = ProductEvent.builder().sku("SKU-1").eventType("DELETED").version(3L).build();
+		BinaryWriter writer = header(EventSchemas.PRODUCT.subjectId(), EventSchemas.PRODUCT.version() + 1);
+		EventSchemas.PRODUCT.encoder().encode(event, writer);
+		writer.writeString(7, "added later").writeLong(8, 99L);
+
+		assertThat(deserializer.deserialize("product-events", writer.toByteArray())).isEqualTo(event);
+	}
+
+	@Test
+	void nullFieldsStayNull() {
+		ProductEvent event = ProductEvent.builder().sku("SKU-1").build();
+
+		assertThat(deserializer.deserialize("product-events", serializer.serialize("product-events", event))).isEqualTo(event);
+		assertThat(serializer.serialize("product-events", null)).isNull();
+	}
+
+	@Test
+	void legacyJsonIsReadOnlyWhenConfigured() {
+		byte[] json = "{\"sku\":\"SKU-1\",\"quantity\":2,\"eventType\":\"CREATED\",\"extra\":true}".getBytes(StandardCharsets.UTF_8);
+
+		assertThatThrownBy(() -> deserializer.deserialize("product-events", json)).isInstanceOf(SerializationException.class);
+
+		deserializer.configure(Map.of(BinaryEventDeserializer.LEGACY_JSON_TYPE, ProductEvent.class.getName()), false);
+		ProductEvent decoded = (ProductEvent) deserializer.deserialize("product-events", json);
+		assertThat(decoded.getSku()).isEqualTo("SKU-1");
+		assertThat(decoded.getQuantity()).isEqualTo(2);
+	}
+
+	@Test
+	void rejectsUnknownSubjects() {
+		assertThatThrownBy(() -> deserializer.deserialize("product-events", header(99, 1).toByteArray()))
+				.isInstanceOf(SerializationException.class);
+	}
+
+	private static <T> byte[] encode(EventSchema<T> schema, T event) {
+		BinaryWriter writer = header(schema.subjectId(), schema.version());
+		schema.encoder().encode(event, writer);
+		return writer.toByteArray();
+	}
+
+	private static BinaryWriter header(int subjectId, int version) {
+		BinaryWriter writer = new BinaryWriter(64);
+		writer.writeVarint(BinaryEventSerializer.MAGIC);
+		writer.writeVarint(subjectId);
+		writer.writeVarint(version);
+		return writer;
+	}
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.events.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SchemaRegistryTest {
+
+	@Test
+	void latestVersionServesBothLookups() {
+		SchemaRegistry registry = new SchemaRegistry();
+		EventSchema<Sample> v1 = schema(1, "sample", 1, Map.of(1, WireType.LENGTH_DELIMITED));
+		EventSchema<Sample> v2 = schema(1, "sample", 2, Map.of(1, WireType.LENGTH_DELIMITED, 2, WireType.VARINT));
+
+		registry.register(v1);
+		registry.register(v2);
+
+		assertThat(registry.forType(Sample.class)).isSameAs(v2);
+		assertThat(registry.forSubjectId(1)).isSameAs(v2);
+	}
+
+	@Test
+	void rejectsVersionsOutOfOrder() {
+		SchemaRegistry registry = new SchemaRegistry();
+		registry.register(schema(1, "sample", 2, Map.of(1, WireType.VARINT)));
+
+		assertThatThrownBy(() -> registry.register(schema(1, "sample", 1, Map.of(1, WireType.VARINT))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("not newer");
+		assertThatThrownBy(() -> registry.register(schema(1, "sample", 2, Map.of(1, WireType.VARINT))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsATagThatChangesWireType() {
+		SchemaRegistry registry = new SchemaRegistry();
+		registry.register(schema(1, "sample", 1, Map.of(1, WireType.VARINT)));
+
+		assertThatThrownBy(() -> registry.register(schema(1, "sample", 2, Map.of(1, WireType.LENGTH_DELIMITED))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("changes tag 1");
+		assertThat(registry.forSubjectId(1).version()).isEqualTo(1);
+	}
+
+	@Test
+	void droppedTagsStayReserved() {
+		SchemaRegistry registry = new SchemaRegistry();
+		registry.register(schema(1, "sample", 1, Map.of(1, WireType.VARINT, 2, WireType.VARINT)));
+		registry.register(schema(1, "sample", 2, Map.of(1, WireType.VARINT)));
+
+		assertThatThrownBy(() -> registry.register(schema(1, "sample", 3, Map.of(1, WireType.VARINT, 2, WireType.LENGTH_DELIMITED))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("changes tag 2");
+	}
+
+	@Test
+	void rejectsASubjectIdUsedByAnotherSubject() {
+		SchemaRegistry registry = new SchemaRegistry();
+		registry.register(schema(1, "sample", 1, Map.of(1, WireType.VARINT)));
+
+		assertThatThrownBy(() -> registry.register(schema(1, "other", 2, Map.of(1, WireType.VARINT))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("already used by sample");
+	}
+
+	@Test
+	void rejectsUnknownLookups() {
+		SchemaRegistry registry = new SchemaRegistry();
+
+		assertThatThrownBy(() -> registry.forType(Sample.class)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> registry.forSubjectId(7)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void sharedSchemasRegisterEveryProductVersionInOrder() {
+		assertThat(EventSchemas.PRODUCT_V1.version()).isLessThan(EventSchemas.PRODUCT.version());
+		assertThat(EventSchemas.PRODUCT.fields()).containsAllEntriesOf(EventSchemas.PRODUCT_V1.fields());
+		assertThat(EventSchemas.REGISTRY.forSubjectId(EventSchemas.PRODUCT.subjectId())).isSameAs(EventSchemas.PRODUCT);
+
+		SchemaRegistry registry = new SchemaRegistry();
+		registry.register(EventSchemas.PRODUCT_V1);
+		registry.register(EventSchemas.PRODUCT);
+		assertThatThrownBy(() -> registry.register(EventSchemas.PRODUCT_V1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static EventSchema<Sample> schema(int subjectId, String subject, int version, Map<Integer, WireType> fields) {
+		return new EventSchema<>(subjectId, subject, version, Sample.class, fields,
+				(event, writer) -> { }, reader -> new Sample());
+	}
+
+	private static class Sample {
+	}
+}
@@ -1,5 +1,8 @@
 package com.ecommerce.inventoryservice.config;
 
+import com.ecommerce.events.ProductEvent;
+import com.ecommerce.events.codec.BinaryEventDeserializer;
+import com.ecommerce.inventoryservice.dto.InventoryChangedEvent;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -7,6 +10,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
@@ -18,16 +22,24 @@ public class KafkaConsumerConfig {
 	@Value("${spring.kafka.bootstrap-servers}")
 	private String bootstrapServers;
 
+	@Value("${inventory.product-events.batch-size:1000}")
+	private int batchSize;
+
+	@Value("${inventory.product-events.fetch-min-bytes:65536}")
+	private int fetchMinBytes;
+
+	@Value("${inventory.product-events.fetch-max-wait-ms:100}")
+	private int fetchMaxWaitMs;
+
 	@Bean
 	public ConsumerFactory<String, Object> consumerFactory() {
 		Map<String, Object> props = new HashMap<>();
 		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
 		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.GROUP_ID_CONFIG, "inventory-service-group");
 		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-		props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-		props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
-		props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "com.ecommerce.inventoryservice.dto.ProductEvent");
+		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, BinaryEventDeserializer.class);
+		// Producers that still send JSON are read as ProductEvent, and only as ProductEvent
+		props.put(BinaryEventDeserializer.LEGACY_JSON_TYPE, ProductEvent.class.getName());
 		return new DefaultKafkaConsumerFactory<>(props);
 	}
 
@@ -37,5 +49,40 @@ public class KafkaConsumerConfig {
 		factory.setConsumerFactory(consumerFactory());
 		return factory;
 	}
+
+	// Hands each poll of up to max.poll.records to the listener as one list; offsets are committed once the listener
+	// returns, i.e. after the batch transaction has committed
+	@Bean
+	public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory() {
+		Map<String, Object> props = new HashMap<>(consumerFactory().getConfigurationProperties());
+		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+
+		ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+		factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+		factory.setBatchListener(true);
+		factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+		return factory;
+	}
+
+	// This service's own inventory-changes topic, published as plain JSON. Only changes from now on matter: there is
+	// no group.id and nothing is ever acknowledged, so no offsets are committed and every start reads from the end
+	@Bean
+	public ConcurrentKafkaListenerContainerFactory<String, Object> inventoryChangesListenerContainerFactory() {
+		Map<String, Object> props = new HashMap<>();
+		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+		props.put(org.apache.kafka.clients.consumer.ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+		props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+		props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, InventoryChangedEvent.class.getName());
+
+		ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+		factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+		factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+		factory.getContainerProperties().setAssignmentCommitOption(ContainerProperties.AssignmentCommitOption.NEVER);
+		return factory;
+	}
 }
 
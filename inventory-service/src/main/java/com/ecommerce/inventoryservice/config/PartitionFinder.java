@@ -0,0 +1,30 @@
+package com.ecommerce.inventoryservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Lists a topic's partitions for listeners that assign themselves all of them instead of joining a consumer group.
+// Partitions added later are picked up on the next restart
+@Component
+@RequiredArgsConstructor
+public class PartitionFinder {
+
+	private final ConsumerFactory<String, Object> consumerFactory;
+
+	public String[] partitions(String topic) {
+		try (Consumer<String, Object> consumer = consumerFactory.createConsumer()) {
+			List<PartitionInfo> partitions = consumer.partitionsFor(topic);
+			if (partitions == null || partitions.isEmpty()) {
+				throw new IllegalStateException("Topic " + topic + " has no partitions");
+			}
+			return partitions.stream()
+					.map(partition -> String.valueOf(partition.partition()))
+					.toArray(String[]::new);
+		}
+	}
+}
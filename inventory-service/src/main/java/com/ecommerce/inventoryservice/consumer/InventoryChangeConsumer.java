@@ -0,0 +1,27 @@
+package com.ecommerce.inventoryservice.consumer;
+
+import com.ecommerce.inventoryservice.dto.InventoryChangedEvent;
+import com.ecommerce.inventoryservice.service.SkuFilter;
+import com.ecommerce.inventoryservice.service.StockCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class InventoryChangeConsumer {
+
+	private final StockCache stockCache;
+	private final SkuFilter skuFilter;
+
+	// Every instance caches stock and keeps its SKU filter on its own, so each one reads every partition. They are
+	// assigned directly rather than through a consumer group, so restarts leave no abandoned groups behind
+	@KafkaListener(topicPartitions = @TopicPartition(topic = "inventory-changes",
+			partitions = "#{@partitionFinder.partitions('inventory-changes')}"),
+			containerFactory = "inventoryChangesListenerContainerFactory")
+	public void handleInventoryChange(InventoryChangedEvent inventoryChangedEvent) {
+		stockCache.invalidate(inventoryChangedEvent.getSkuCode());
+		skuFilter.apply(inventoryChangedEvent);
+	}
+}
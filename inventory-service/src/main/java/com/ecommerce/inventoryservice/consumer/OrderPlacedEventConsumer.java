@@ -0,0 +1,29 @@
+package com.ecommerce.inventoryservice.consumer;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.inventoryservice.exception.InventoryNotFoundException;
+import com.ecommerce.inventoryservice.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// order-service reserves with the order number as reservation id and publishes OrderPlacedEvent through its outbox
+// once the order is saved, so the event is the reliable signal to confirm the hold before it expires
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OrderPlacedEventConsumer {
+
+	private final InventoryService inventoryService;
+
+	@KafkaListener(topics = "notificationTopic", groupId = "inventory-service-group")
+	public void handleOrderPlaced(OrderPlacedEvent orderPlacedEvent) {
+		try {
+			inventoryService.confirmReservation(orderPlacedEvent.getOrderNumber());
+		} catch (InventoryNotFoundException e) {
+			// Redelivery after a confirm, or an order placed before reservations had ids
+			log.debug("No reservation to confirm for order {}", orderPlacedEvent.getOrderNumber());
+		}
+	}
+}
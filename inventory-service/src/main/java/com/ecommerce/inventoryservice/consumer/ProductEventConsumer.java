@@ -1,41 +1,107 @@
 package com.ecommerce.inventoryservice.consumer;
 
-import com.ecommerce.inventoryservice.dto.ProductEvent;
+import com.ecommerce.events.ProductEvent;
 import com.ecommerce.inventoryservice.service.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class ProductEventConsumer {
 
+	public static final String PRODUCT_EVENTS_RETRY_TOPIC = "product-events-retry";
+	public static final String PRODUCT_EVENTS_DLT = PRODUCT_EVENTS_RETRY_TOPIC + "-dlt";
+
+	private static final String MAIN_STAGE = "product-events";
+
 	private final InventoryService inventoryService;
+	private final ProductEventLanes productEventLanes;
+	private final KafkaTemplate<String, Object> kafkaTemplate;
+	private final MeterRegistry meterRegistry;
 
-	@KafkaListener(topics = "product-events", groupId = "inventory-service-group")
-	public void handleProductEvent(ProductEvent productEvent) {
-		log.info("Received product event: {} for SKU: {}", productEvent.getEventType(), productEvent.getSku());
-		
-		try {
-			switch (productEvent.getEventType()) {
-				case "CREATED":
-					inventoryService.handleProductCreated(productEvent.getSku(), productEvent.getQuantity());
-					break;
-				case "UPDATED":
-					inventoryService.handleProductUpdated(productEvent.getSku(), productEvent.getQuantity());
-					break;
-				case "DELETED":
-					inventoryService.handleProductDeleted(productEvent.getSku());
-					break;
-				default:
-					log.warn("Unknown event type: {}", productEvent.getEventType());
+	// batch: one transaction per poll; parallel: SKU-ordered lanes, one transaction per lane
+	@Value("${inventory.product-events.mode:batch}")
+	private String mode;
+
+	@KafkaListener(topics = "product-events", groupId = "inventory-service-group",
+			containerFactory = "batchKafkaListenerContainerFactory")
+	public void handleProductEvents(List<ProductEvent> productEvents) {
+		log.info("Received {} product events", productEvents.size());
+
+		if ("parallel".equals(mode)) {
+			List<ProductEvent> failed = productEventLanes.apply(productEvents);
+			count(MAIN_STAGE, "success", productEvents.size() - failed.size());
+			if (!failed.isEmpty()) {
+				log.warn("{} of {} product events failed in their lanes, applying them one at a time", failed.size(),
+						productEvents.size());
+				failed.forEach(this::handleProductEvent);
 			}
+			return;
+		}
+
+		try {
+			inventoryService.applyProductEvents(productEvents);
+			count(MAIN_STAGE, "success", productEvents.size());
 		} catch (Exception e) {
-			log.error("Error processing product event for SKU: {}", productEvent.getSku(), e);
-			// In a production environment, you might want to implement retry logic or dead letter queue
+			// One bad record fails the whole batch; replay it record by record so only that record moves aside
+			log.warn("Batch of {} product events failed, applying them one at a time", productEvents.size(), e);
+			productEvents.forEach(this::handleProductEvent);
 		}
 	}
-}
 
+	// Staged retries off the main partition: each stage topic holds a record until its delay has passed, and a record
+	// that fails every stage lands in product-events-retry-dlt for replay through the admin endpoint
+	@RetryableTopic(attempts = "${inventory.product-events.retry.attempts:4}",
+			backoff = @Backoff(delayExpression = "${inventory.product-events.retry.delay-ms:1000}",
+					multiplierExpression = "${inventory.product-events.retry.multiplier:10}",
+					maxDelayExpression = "${inventory.product-events.retry.max-delay-ms:300000}"),
+			retryTopicSuffix = "-stage", dltTopicSuffix = "-dlt",
+			topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE)
+	@KafkaListener(topics = PRODUCT_EVENTS_RETRY_TOPIC, groupId = "inventory-service-group")
+	public void handleRetry(ProductEvent productEvent, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+		try {
+			inventoryService.applyProductEvents(List.of(productEvent));
+			count(topic, "success", 1);
+		} catch (RuntimeException e) {
+			log.warn("Retry of product event for SKU: {} failed on {}", productEvent.getSku(), topic, e);
+			count(topic, "failure", 1);
+			throw e;
+		}
+	}
+
+	@DltHandler
+	public void handleDeadLetter(ProductEvent productEvent, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+		log.error("Product event for SKU: {} exhausted its retries and was parked on {}", productEvent.getSku(), topic);
+		count(topic, "parked", 1);
+	}
+
+	// The send is awaited, so the main offset is only committed once the record is safely on the retry topic
+	private void handleProductEvent(ProductEvent productEvent) {
+		try {
+			inventoryService.applyProductEvents(List.of(productEvent));
+			count(MAIN_STAGE, "success", 1);
+		} catch (Exception e) {
+			log.warn("Product event for SKU: {} failed, moving it to {}", productEvent.getSku(), PRODUCT_EVENTS_RETRY_TOPIC, e);
+			count(MAIN_STAGE, "failure", 1);
+			kafkaTemplate.send(PRODUCT_EVENTS_RETRY_TOPIC, productEvent.getSku(), productEvent).join();
+		}
+	}
+
+	private void count(String stage, String outcome, int records) {
+		meterRegistry.counter("inventory.product_events.stage", "stage", stage, "outcome", outcome).increment(records);
+	}
+}
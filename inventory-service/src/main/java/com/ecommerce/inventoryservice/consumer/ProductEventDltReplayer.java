@@ -0,0 +1,90 @@
+package com.ecommerce.inventoryservice.consumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+// Moves parked product events from the DLT back to the start of the retry chain. Progress is committed under its
+// own consumer group, so each parked record is replayed once however many times the endpoint is called
+@Component
+@Slf4j
+public class ProductEventDltReplayer {
+
+	private static final String REPLAY_GROUP = "inventory-service-dlt-replay";
+
+	private final ConsumerFactory<String, Object> consumerFactory;
+	private final KafkaTemplate<String, Object> kafkaTemplate;
+	private final Counter replayed;
+
+	public ProductEventDltReplayer(ConsumerFactory<String, Object> consumerFactory,
+								   KafkaTemplate<String, Object> kafkaTemplate,
+								   MeterRegistry meterRegistry) {
+		this.consumerFactory = consumerFactory;
+		this.kafkaTemplate = kafkaTemplate;
+		this.replayed = Counter.builder("inventory.product_events.replayed")
+				.description("Parked product events sent back to the retry topic")
+				.register(meterRegistry);
+	}
+
+	// Replays up to max records that were parked before the call; returns how many were replayed
+	public synchronized int replay(int max) {
+		Properties overrides = new Properties();
+		overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+		overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(Math.max(max, 1), 500));
+		try (Consumer<String, Object> consumer = consumerFactory.createConsumer(REPLAY_GROUP, null, null, overrides)) {
+			List<TopicPartition> partitions = consumer.partitionsFor(ProductEventConsumer.PRODUCT_EVENTS_DLT).stream()
+					.map(partition -> new TopicPartition(partition.topic(), partition.partition()))
+					.toList();
+			consumer.assign(partitions);
+			Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+			for (TopicPartition partition : partitions) {
+				OffsetAndMetadata offset = committed.get(partition);
+				if (offset != null) {
+					consumer.seek(partition, offset.offset());
+				} else {
+					consumer.seekToBeginning(List.of(partition));
+				}
+			}
+			Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+			int count = 0;
+			Map<TopicPartition, OffsetAndMetadata> progress = new HashMap<>();
+			while (count < max && !caughtUp(consumer, endOffsets)) {
+				for (ConsumerRecord<String, Object> record : consumer.poll(Duration.ofMillis(500))) {
+					TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+					if (count >= max || record.offset() >= endOffsets.get(partition)) {
+						continue;
+					}
+					kafkaTemplate.send(ProductEventConsumer.PRODUCT_EVENTS_RETRY_TOPIC, record.key(), record.value()).join();
+					progress.put(partition, new OffsetAndMetadata(record.offset() + 1));
+					count++;
+				}
+			}
+			if (!progress.isEmpty()) {
+				consumer.commitSync(progress);
+			}
+			replayed.increment(count);
+			log.info("Replayed {} parked product events from {}", count, ProductEventConsumer.PRODUCT_EVENTS_DLT);
+			return count;
+		}
+	}
+
+	private boolean caughtUp(Consumer<String, Object> consumer, Map<TopicPartition, Long> endOffsets) {
+		return endOffsets.entrySet().stream().allMatch(end -> consumer.position(end.getKey()) >= end.getValue());
+	}
+}
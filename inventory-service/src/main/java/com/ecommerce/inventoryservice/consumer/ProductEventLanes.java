@@ -0,0 +1,79 @@
+package com.ecommerce.inventoryservice.consumer;
+
+import com.ecommerce.events.ProductEvent;
+import com.ecommerce.inventoryservice.service.InventoryService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Parallel mode for product-events: each poll is split into lanes by SKU hash and the lanes are applied
+// concurrently, each in its own transaction. A SKU always maps to the same lane, so its events stay in order.
+// The listener only returns, and the container only commits offsets, once every lane has finished. The events of
+// a lane that failed are handed back so the listener replays just those, record by record
+@Component
+@Slf4j
+public class ProductEventLanes {
+
+	private final InventoryService inventoryService;
+	private final ThreadPoolTaskExecutor executor;
+	private final DistributionSummary activeLanes;
+	private final int lanes;
+
+	public ProductEventLanes(InventoryService inventoryService,
+							 MeterRegistry meterRegistry,
+							 @Value("${inventory.product-events.lanes:8}") int lanes) {
+		this.inventoryService = inventoryService;
+		this.lanes = lanes;
+		// Platform threads: this service runs on Java 17. Keep lanes below the JDBC pool size
+		this.executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(lanes);
+		executor.setMaxPoolSize(lanes);
+		executor.setQueueCapacity(lanes);
+		executor.setThreadNamePrefix("product-lane-");
+		executor.initialize();
+		this.activeLanes = DistributionSummary.builder("inventory.product_events.lanes.active")
+				.description("Lanes with work per product-events poll")
+				.register(meterRegistry);
+	}
+
+	// Returns the events of the lanes that failed; every other lane has committed
+	public List<ProductEvent> apply(List<ProductEvent> productEvents) {
+		List<List<ProductEvent>> byLane = new ArrayList<>(lanes);
+		for (int i = 0; i < lanes; i++) {
+			byLane.add(new ArrayList<>());
+		}
+		productEvents.forEach(productEvent -> byLane.get(laneOf(productEvent)).add(productEvent));
+
+		List<CompletableFuture<List<ProductEvent>>> running = byLane.stream()
+				.filter(lane -> !lane.isEmpty())
+				.map(lane -> CompletableFuture.supplyAsync(() -> {
+					inventoryService.applyProductEvents(lane);
+					return List.<ProductEvent>of();
+				}, executor).exceptionally(e -> {
+					log.warn("Lane of {} product events failed", lane.size(), e);
+					return lane;
+				}))
+				.toList();
+		activeLanes.record(running.size());
+		return running.stream()
+				.flatMap(lane -> lane.join().stream())
+				.toList();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	private int laneOf(ProductEvent productEvent) {
+		return productEvent.getSku() == null ? 0 : Math.floorMod(productEvent.getSku().hashCode(), lanes);
+	}
+}
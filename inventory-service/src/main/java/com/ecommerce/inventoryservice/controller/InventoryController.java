@@ -1,19 +1,39 @@
 package com.ecommerce.inventoryservice.controller;
 
+import com.ecommerce.events.codec.BinaryWriter;
+import com.ecommerce.events.codec.SkuAvailabilityCodec;
+import com.ecommerce.inventoryservice.consumer.ProductEventConsumer;
+import com.ecommerce.inventoryservice.consumer.ProductEventDltReplayer;
 import com.ecommerce.inventoryservice.dto.InventoryRequest;
+import com.ecommerce.inventoryservice.dto.ReservationRequest;
+import com.ecommerce.inventoryservice.response.DltReplayResponse;
+import com.ecommerce.inventoryservice.response.InventoryImportResponse;
+import com.ecommerce.inventoryservice.response.InventoryPageResponse;
 import com.ecommerce.inventoryservice.response.InventoryResponse;
+import com.ecommerce.inventoryservice.response.ReservationResponse;
+import com.ecommerce.inventoryservice.service.HotSkuStockService;
+import com.ecommerce.inventoryservice.service.InventoryImportService;
 import com.ecommerce.inventoryservice.service.InventoryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -24,6 +44,10 @@ import java.util.List;
 public class InventoryController {
 
 	private final InventoryService inventoryService;
+	private final InventoryImportService inventoryImportService;
+	private final HotSkuStockService hotSkuStockService;
+	private final ProductEventDltReplayer productEventDltReplayer;
+	private final ObjectMapper objectMapper;
 
 	@GetMapping("/check")
 	@ResponseStatus(HttpStatus.OK)
@@ -32,6 +56,32 @@ public class InventoryController {
 		return ResponseEntity.ok(inventoryService.isInStock(skuCode));
 	}
 
+	// POST form of /check for large SKU lists: a JSON array of SKU codes in, an entry for every SKU out, unknown ones
+	// without a quantity. Accept: application/x-sku-availability selects the length-prefixed binary encoding
+	@PostMapping(value = "/availability", consumes = MediaType.APPLICATION_JSON_VALUE,
+			produces = {MediaType.APPLICATION_JSON_VALUE, SkuAvailabilityCodec.MEDIA_TYPE})
+	public ResponseEntity<StreamingResponseBody> getAvailability(
+			@RequestBody List<String> skuCodes,
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+		List<InventoryResponse> availability = inventoryService.getAvailability(skuCodes);
+		if (acceptsBinaryAvailability(accept)) {
+			return ResponseEntity.ok()
+					.contentType(MediaType.parseMediaType(SkuAvailabilityCodec.MEDIA_TYPE))
+					.body(outputStream -> writeBinaryAvailability(availability, outputStream));
+		}
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(outputStream -> {
+					try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+						generator.writeStartArray();
+						for (InventoryResponse inventory : availability) {
+							generator.writeObject(inventory);
+						}
+						generator.writeEndArray();
+					}
+				});
+	}
+
 	@GetMapping("/{skuCode}")
 	@ResponseStatus(HttpStatus.OK)
 	public ResponseEntity<InventoryResponse> getInventoryBySkuCode(
@@ -42,9 +92,27 @@ public class InventoryController {
 
 	@GetMapping
 	@ResponseStatus(HttpStatus.OK)
-	public ResponseEntity<List<InventoryResponse>> getAllInventory() {
-		log.info("Fetching all inventory");
-		return ResponseEntity.ok(inventoryService.getAllInventory());
+	public ResponseEntity<InventoryPageResponse> getInventoryPage(
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "100") int size) {
+		log.info("Fetching inventory page after cursor: {}", cursor);
+		return ResponseEntity.ok(inventoryService.getInventoryPage(cursor, size));
+	}
+
+	// One JSON document per line, written as rows come off the database cursor
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportInventory() {
+		log.info("Exporting all inventory");
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.body(outputStream -> inventoryService.exportInventory(inventory -> {
+					try {
+						outputStream.write(objectMapper.writeValueAsBytes(inventory));
+						outputStream.write('\n');
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}));
 	}
 
 	@PostMapping
@@ -55,6 +123,15 @@ public class InventoryController {
 				.body(inventoryService.createInventory(request));
 	}
 
+	// Warehouse sync: streamed CSV (sku,quantity) or NDJSON ({"skuCode","quantity"}) rows, upserted as absolute quantities
+	@PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<InventoryImportResponse> importInventory(
+			@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+		log.info("Importing inventory from {} body", contentType);
+		return ResponseEntity.ok(inventoryImportService.importInventory(body, contentType));
+	}
+
 	@PutMapping("/{skuCode}")
 	@ResponseStatus(HttpStatus.OK)
 	public ResponseEntity<InventoryResponse> updateInventory(
@@ -92,4 +169,81 @@ public class InventoryController {
 		log.info("Adding inventory for SKU code: {} by quantity: {}", skuCode, quantity);
 		return ResponseEntity.ok(inventoryService.addInventory(skuCode, quantity));
 	}
+
+	@PostMapping("/reserve")
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<ReservationResponse> reserveInventory(@RequestBody @Valid ReservationRequest request) {
+		log.info("Reserving inventory for {} items", request.getItems().size());
+		return ResponseEntity.ok(inventoryService.reserveInventory(request));
+	}
+
+	@PostMapping("/release")
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<ReservationResponse> releaseInventory(@RequestBody @Valid ReservationRequest request) {
+		log.info("Releasing inventory for {} items", request.getItems().size());
+		return ResponseEntity.ok(inventoryService.releaseInventory(request));
+	}
+
+	// Flash-sale switch: spread the SKU's stock over the given number of buckets
+	@PutMapping("/{skuCode}/hot")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public ResponseEntity<Void> enableHotMode(
+			@PathVariable @NotBlank(message = "SKU code cannot be blank") String skuCode,
+			@RequestParam @NotNull(message = "Buckets cannot be null") Integer buckets) {
+		log.info("Enabling hot mode for SKU code: {} with {} buckets", skuCode, buckets);
+		hotSkuStockService.enable(skuCode, buckets);
+		return ResponseEntity.noContent().build();
+	}
+
+	@DeleteMapping("/{skuCode}/hot")
+	@ResponseStatus(HttpStatus.NO_CONTENT)
+	public ResponseEntity<Void> disableHotMode(
+			@PathVariable @NotBlank(message = "SKU code cannot be blank") String skuCode) {
+		log.info("Disabling hot mode for SKU code: {}", skuCode);
+		hotSkuStockService.disable(skuCode);
+		return ResponseEntity.noContent().build();
+	}
+
+	// Sends parked product events back through the retry chain, oldest first
+	@PostMapping("/admin/product-events/dlt/replay")
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<DltReplayResponse> replayProductEventDlt(
+			@RequestParam(defaultValue = "1000") @Positive(message = "Max must be greater than zero") int max) {
+		log.info("Replaying up to {} parked product events", max);
+		return ResponseEntity.ok(DltReplayResponse.builder()
+				.topic(ProductEventConsumer.PRODUCT_EVENTS_DLT)
+				.replayed(productEventDltReplayer.replay(max))
+				.build());
+	}
+
+	@PostMapping("/reservations/{reservationId}/confirm")
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<ReservationResponse> confirmReservation(
+			@PathVariable @NotBlank(message = "Reservation id cannot be blank") String reservationId) {
+		log.info("Confirming reservation {}", reservationId);
+		return ResponseEntity.ok(inventoryService.confirmReservation(reservationId));
+	}
+
+	// JSON unless the client explicitly asks for the binary encoding
+	private static boolean acceptsBinaryAvailability(String accept) {
+		if (accept == null || accept.isBlank()) {
+			return false;
+		}
+		MediaType binary = MediaType.parseMediaType(SkuAvailabilityCodec.MEDIA_TYPE);
+		return MediaType.parseMediaTypes(accept).stream()
+				.anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(binary) && mediaType.getQualityValue() > 0);
+	}
+
+	// Written in chunks of about 64 KiB rather than assembled as one payload
+	private static void writeBinaryAvailability(List<InventoryResponse> availability, OutputStream outputStream) throws IOException {
+		BinaryWriter writer = new BinaryWriter(1 << 16);
+		for (InventoryResponse inventory : availability) {
+			SkuAvailabilityCodec.encode(writer, inventory.getSkuCode(), inventory.getQuantity());
+			if (writer.size() >= 1 << 16) {
+				outputStream.write(writer.toByteArray());
+				writer = new BinaryWriter(1 << 16);
+			}
+		}
+		outputStream.write(writer.toByteArray());
+	}
 }
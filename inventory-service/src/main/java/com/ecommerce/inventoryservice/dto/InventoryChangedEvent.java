@@ -0,0 +1,17 @@
+package com.ecommerce.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryChangedEvent {
+	private String skuCode;
+	private Integer quantity;
+	private boolean deleted;
+	private long changedAt;
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.inventoryservice.dto;
+
+import java.time.Instant;
+
+// In-process only: tells ReservationExpiryService about a committed hold
+public record ReservationHeldEvent(String reservationId, Instant expiresAt) {
+}
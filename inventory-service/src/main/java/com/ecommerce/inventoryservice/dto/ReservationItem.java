@@ -0,0 +1,23 @@
+package com.ecommerce.inventoryservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationItem {
+
+	@NotBlank(message = "SKU code cannot be blank")
+	private String skuCode;
+
+	@NotNull(message = "Quantity cannot be null")
+	@Positive(message = "Quantity must be greater than zero")
+	private Integer quantity;
+}
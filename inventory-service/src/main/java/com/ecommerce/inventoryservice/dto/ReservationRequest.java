@@ -0,0 +1,23 @@
+package com.ecommerce.inventoryservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationRequest {
+
+	// Caller-chosen id (order-service uses the order number) that makes a retried reserve a no-op
+	private String reservationId;
+
+	@NotEmpty(message = "Reservation items cannot be empty")
+	private List<@Valid ReservationItem> items;
+}
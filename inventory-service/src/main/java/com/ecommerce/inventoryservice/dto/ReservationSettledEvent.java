@@ -0,0 +1,5 @@
+package com.ecommerce.inventoryservice.dto;
+
+// In-process only: the hold was confirmed, released or expired and no longer needs a timer
+public record ReservationSettledEvent(String reservationId) {
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.inventoryservice.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@ControllerAdvice
+public class GlobalExceptionHandler {
+
+	@ExceptionHandler(MethodArgumentNotValidException.class)
+	public ResponseEntity<Map<String, String>> handleValidationException(MethodArgumentNotValidException ex) {
+		Map<String, String> errors = new HashMap<>();
+		ex.getBindingResult().getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+		return ResponseEntity.badRequest().body(errors);
+	}
+
+	@ExceptionHandler(InventoryNotFoundException.class)
+	public ResponseEntity<Map<String, String>> handleNotFoundException(InventoryNotFoundException ex) {
+		log.warn("Inventory not found {}", ex.getMessage());
+		return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+	}
+
+	@ExceptionHandler(InsufficientInventoryException.class)
+	public ResponseEntity<Map<String, String>> handleInsufficientInventoryException(InsufficientInventoryException ex) {
+		log.warn("Insufficient inventory {}", ex.getMessage());
+		return buildErrorResponse(HttpStatus.CONFLICT, ex.getMessage());
+	}
+
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
+		log.warn("Invalid inventory operation {}", ex.getMessage());
+		return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
+	}
+
+	private ResponseEntity<Map<String, String>> buildErrorResponse(HttpStatus status, String message) {
+		Map<String, String> body = new HashMap<>();
+		body.put("message", message);
+		body.put("status", status.name());
+		return ResponseEntity.status(status).body(body);
+	}
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.inventoryservice.exception;
+
+public class InsufficientInventoryException extends RuntimeException {
+	public InsufficientInventoryException(String message) {
+		super(message);
+	}
+}
@@ -8,7 +8,10 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name="t_inventory")
+@Table(name="t_inventory", indexes = {
+		@Index(name = "uk_inventory_sku_code", columnList = "sku_code", unique = true),
+		@Index(name = "idx_inventory_buckets", columnList = "buckets")
+})
 @Setter
 @Getter
 @AllArgsConstructor
@@ -21,4 +24,11 @@ public class Inventory {
 	private Long id;
 	private String skuCode;
 	private Integer quantity;
+
+	// Number of t_inventory_bucket rows holding this SKU's stock while it is in hot mode, null otherwise. quantity
+	// is then only the unbucketed remainder; the available stock is quantity plus the sum of the buckets
+	private Integer buckets;
+
+	// Version of the last product event applied to this SKU; older or replayed events are ignored
+	private Long productVersion;
 }
@@ -0,0 +1,26 @@
+package com.ecommerce.inventoryservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One slice of a hot SKU's stock. Decrements spread over the buckets instead of queueing on the t_inventory row
+@Entity
+@Table(name = "t_inventory_bucket", indexes = @Index(name = "uk_inventory_bucket_sku_bucket", columnList = "sku_code, bucket", unique = true))
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryBucket {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	private String skuCode;
+	private Integer bucket;
+	private Integer quantity;
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.inventoryservice.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Highest journal sequence of a stock ledger already applied to t_inventory, committed with the deltas it covers
+@Entity
+@Table(name = "t_inventory_ledger_watermark")
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LedgerWatermark {
+
+	@Id
+	private String journalId;
+
+	private Long appliedSeq;
+}
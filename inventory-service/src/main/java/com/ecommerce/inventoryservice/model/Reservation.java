@@ -0,0 +1,38 @@
+package com.ecommerce.inventoryservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+// Stock held for an order that is not confirmed yet. idx_reservation_expires_at is the persisted expiry index:
+// restarts rebuild the timing wheel from it and the safety sweep reads only its due prefix
+@Entity
+@Table(name = "t_inventory_reservation", indexes = {
+		@Index(name = "uk_reservation_reservation_id", columnList = "reservation_id", unique = true),
+		@Index(name = "idx_reservation_expires_at", columnList = "expires_at")
+})
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class Reservation {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	private String reservationId;
+
+	private Instant expiresAt;
+
+	@ElementCollection
+	@CollectionTable(name = "t_inventory_reservation_item", joinColumns = @JoinColumn(name = "reservation_row_id"))
+	private List<ReservationLine> items;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.inventoryservice.model;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Embeddable
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationLine {
+
+	private String skuCode;
+	private Integer quantity;
+}
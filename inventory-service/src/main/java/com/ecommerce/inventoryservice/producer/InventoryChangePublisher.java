@@ -0,0 +1,30 @@
+package com.ecommerce.inventoryservice.producer;
+
+import com.ecommerce.inventoryservice.dto.InventoryChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class InventoryChangePublisher {
+
+	public static final String INVENTORY_CHANGES_TOPIC = "inventory-changes";
+
+	private final KafkaTemplate<String, InventoryChangedEvent> kafkaTemplate;
+
+	// Only committed stock changes leave the service; keyed by SKU so consumers see each SKU's changes in order
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void publish(InventoryChangedEvent event) {
+		kafkaTemplate.send(INVENTORY_CHANGES_TOPIC, event.getSkuCode(), event)
+				.whenComplete((result, e) -> {
+					if (e != null) {
+						log.error("Failed to publish inventory change for SKU: {}", event.getSkuCode(), e);
+					}
+				});
+	}
+}
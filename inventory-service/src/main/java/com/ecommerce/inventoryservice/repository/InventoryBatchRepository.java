@@ -0,0 +1,107 @@
+package com.ecommerce.inventoryservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Set-based writes for bulk paths, issued as JDBC batches on the connection of the surrounding JPA transaction.
+// A change carrying a version only applies over a lower (or no) product_version, so redelivered batches are no-ops
+@Repository
+@RequiredArgsConstructor
+public class InventoryBatchRepository {
+
+	private static final String NEWER_VERSION = "(? is null or product_version is null or product_version < ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	// Rows per statement; three placeholders a row stays well under the protocol's 65,535
+	static final int ROWS_PER_STATEMENT = 1000;
+
+	// The update clause reads the would-be inserted row through the row alias (MySQL 8.0.19+; VALUES() is deprecated)
+	// instead of binding parameters again. Connector/J's rewriteBatchedStatements repeats the alias with every row,
+	// so the multi-row VALUES list is built here rather than left to the driver
+	static final String NEWER_INSERTED_VERSION =
+			"(new.product_version is null or product_version is null or product_version < new.product_version)";
+
+	// Assignments run left to right, so quantity is decided against the old product_version before that is overwritten
+	static final String UPSERT_QUANTITY_UPDATE = " as new on duplicate key update "
+			+ "quantity = if(" + NEWER_INSERTED_VERSION + ", new.quantity, quantity), "
+			+ "product_version = if(" + NEWER_INSERTED_VERSION + ", coalesce(new.product_version, product_version), product_version)";
+
+	// For changes without a quantity: a new SKU starts at zero and an existing one keeps its stock
+	static final String UPSERT_VERSION_UPDATE = " as new on duplicate key update "
+			+ "product_version = if(" + NEWER_INSERTED_VERSION + ", coalesce(new.product_version, product_version), product_version)";
+
+	// One multi-row INSERT ... ON DUPLICATE KEY UPDATE on uk_inventory_sku_code per chunk: one for the changes
+	// carrying a quantity and one for those that don't, since new.quantity can't tell a null apart from the zero
+	// a new SKU starts at. Rows of one SKU keep their order only within a statement and the quantities go first, so
+	// callers pass each SKU once, always with a quantity, or with a quantity followed by version-only changes
+	public void upsert(List<InventoryChange> changes) {
+		List<InventoryChange> withQuantity = changes.stream().filter(change -> change.quantity() != null).toList();
+		List<InventoryChange> withoutQuantity = changes.stream().filter(change -> change.quantity() == null).toList();
+		for (int from = 0; from < withQuantity.size(); from += ROWS_PER_STATEMENT) {
+			List<InventoryChange> chunk = withQuantity.subList(from, Math.min(from + ROWS_PER_STATEMENT, withQuantity.size()));
+			jdbcTemplate.update(upsertSql("(?, ?, ?)", chunk.size(), UPSERT_QUANTITY_UPDATE), statement -> {
+				int index = 1;
+				for (InventoryChange change : chunk) {
+					statement.setString(index++, change.skuCode());
+					statement.setInt(index++, change.quantity());
+					statement.setObject(index++, change.version(), Types.BIGINT);
+				}
+			});
+		}
+		for (int from = 0; from < withoutQuantity.size(); from += ROWS_PER_STATEMENT) {
+			List<InventoryChange> chunk = withoutQuantity.subList(from, Math.min(from + ROWS_PER_STATEMENT, withoutQuantity.size()));
+			jdbcTemplate.update(upsertSql("(?, 0, ?)", chunk.size(), UPSERT_VERSION_UPDATE), statement -> {
+				int index = 1;
+				for (InventoryChange change : chunk) {
+					statement.setString(index++, change.skuCode());
+					statement.setObject(index++, change.version(), Types.BIGINT);
+				}
+			});
+		}
+	}
+
+	static String upsertSql(String row, int rows, String update) {
+		return "insert into t_inventory (sku_code, quantity, product_version) values "
+				+ String.join(", ", Collections.nCopies(rows, row)) + update;
+	}
+
+	// Net deltas from the stock ledger, never taking a SKU below zero. A SKU deleted meanwhile is skipped
+	public void applyDeltas(Map<String, Long> deltas) {
+		if (deltas.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.batchUpdate("update t_inventory set quantity = greatest(quantity + ?, 0) where sku_code = ?",
+				deltas.entrySet(), deltas.size(), (statement, delta) -> {
+					statement.setLong(1, delta.getValue());
+					statement.setString(2, delta.getKey());
+				});
+	}
+
+	// Returns the SKUs whose row was actually deleted; missing rows and newer versions are left out
+	public List<String> delete(List<InventoryChange> changes) {
+		if (changes.isEmpty()) {
+			return List.of();
+		}
+		int[][] counts = jdbcTemplate.batchUpdate("delete from t_inventory where sku_code = ? and " + NEWER_VERSION,
+				changes, changes.size(), (statement, change) -> {
+					statement.setString(1, change.skuCode());
+					statement.setObject(2, change.version(), Types.BIGINT);
+					statement.setObject(3, change.version(), Types.BIGINT);
+				});
+		List<String> deleted = new ArrayList<>();
+		for (int i = 0; i < changes.size(); i++) {
+			if (counts[0][i] > 0) {
+				deleted.add(changes.get(i).skuCode());
+			}
+		}
+		return deleted;
+	}
+}
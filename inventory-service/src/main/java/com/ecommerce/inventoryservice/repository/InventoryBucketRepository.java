@@ -0,0 +1,56 @@
+package com.ecommerce.inventoryservice.repository;
+
+import com.ecommerce.inventoryservice.model.InventoryBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventoryBucketRepository extends JpaRepository<InventoryBucket, Long> {
+
+	@Modifying
+	@Query("update InventoryBucket b set b.quantity = b.quantity - :quantity "
+			+ "where b.skuCode = :skuCode and b.bucket = :bucket and b.quantity >= :quantity")
+	int takeFromBucket(@Param("skuCode") String skuCode, @Param("bucket") int bucket, @Param("quantity") int quantity);
+
+	@Modifying
+	@Query("update InventoryBucket b set b.quantity = b.quantity + :quantity where b.skuCode = :skuCode and b.bucket = :bucket")
+	int addToBucket(@Param("skuCode") String skuCode, @Param("bucket") int bucket, @Param("quantity") int quantity);
+
+	// Every operation that locks both locks the buckets in bucket order first and the SKU's t_inventory row second
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select b from InventoryBucket b where b.skuCode = :skuCode order by b.bucket")
+	List<InventoryBucket> lockBySkuCode(@Param("skuCode") String skuCode);
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select b from InventoryBucket b where b.skuCode in :skuCodes order by b.skuCode, b.bucket")
+	List<InventoryBucket> lockBySkuCodeIn(@Param("skuCodes") Collection<String> skuCodes);
+
+	@Query("select b from InventoryBucket b where b.skuCode = :skuCode order by b.bucket")
+	List<InventoryBucket> findBySkuCode(@Param("skuCode") String skuCode);
+
+	// First bucket in bucket order that can cover the quantity; buckets other decrements hold are skipped, not waited on
+	@Query(value = "SELECT bucket FROM t_inventory_bucket WHERE sku_code = :skuCode AND quantity >= :quantity "
+			+ "ORDER BY bucket LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	Optional<Integer> lockBucketWithStock(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
+
+	@Query("select new com.ecommerce.inventoryservice.repository.SkuQuantity(b.skuCode, sum(b.quantity)) "
+			+ "from InventoryBucket b where b.skuCode in :skuCodes group by b.skuCode")
+	List<SkuQuantity> sumBySkuCodes(@Param("skuCodes") Collection<String> skuCodes);
+
+	@Modifying
+	@Query("update InventoryBucket b set b.quantity = 0 where b.skuCode in :skuCodes")
+	int emptyBySkuCodes(@Param("skuCodes") Collection<String> skuCodes);
+
+	@Modifying
+	@Query("delete from InventoryBucket b where b.skuCode = :skuCode")
+	int deleteBySkuCode(@Param("skuCode") String skuCode);
+}
@@ -0,0 +1,4 @@
+package com.ecommerce.inventoryservice.repository;
+
+public record InventoryChange(String skuCode, Integer quantity, Long version) {
+}
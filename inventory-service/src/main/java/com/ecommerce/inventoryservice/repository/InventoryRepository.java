@@ -1,16 +1,63 @@
 package com.ecommerce.inventoryservice.repository;
 
 import com.ecommerce.inventoryservice.model.Inventory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long>{
 
 	Optional<Inventory> findBySkuCode(String skuCode);
 
+	boolean existsBySkuCode(String skuCode);
+
 	List<Inventory> findBySkuCodeIn(List<String> skuCode);
+
+	// Seek on uk_inventory_sku_code; the caller passes the sort and page size
+	List<Inventory> findBySkuCodeGreaterThan(String skuCode, Pageable pageable);
+
+	// Server-side cursor (useCursorFetch on the datasource): rows arrive 1000 at a time instead of the whole table
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("select i from Inventory i")
+	Stream<Inventory> streamAll();
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("select i.skuCode from Inventory i")
+	Stream<String> streamSkuCodes();
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select i from Inventory i where i.skuCode = :skuCode")
+	Optional<Inventory> lockBySkuCode(@Param("skuCode") String skuCode);
+
+	@Query("select i from Inventory i where i.buckets > 0")
+	List<Inventory> findHotSkus();
+
+	@Query("select new com.ecommerce.inventoryservice.repository.StoredStock(i.skuCode, i.quantity, i.buckets, i.productVersion) "
+			+ "from Inventory i where i.skuCode in :skuCodes")
+	List<StoredStock> findStockBySkuCodeIn(@Param("skuCodes") Collection<String> skuCodes);
+
+	@Modifying
+	@Query("update Inventory i set i.quantity = i.quantity - :quantity where i.skuCode = :skuCode and i.quantity >= :quantity")
+	int reserveStock(@Param("skuCode") String skuCode, @Param("quantity") Integer quantity);
+
+	@Modifying
+	@Query("update Inventory i set i.quantity = i.quantity + :quantity where i.skuCode = :skuCode")
+	int releaseStock(@Param("skuCode") String skuCode, @Param("quantity") Integer quantity);
 }
@@ -0,0 +1,9 @@
+package com.ecommerce.inventoryservice.repository;
+
+import com.ecommerce.inventoryservice.model.LedgerWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LedgerWatermarkRepository extends JpaRepository<LedgerWatermark, String> {
+}
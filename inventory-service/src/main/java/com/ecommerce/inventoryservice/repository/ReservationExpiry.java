@@ -0,0 +1,6 @@
+package com.ecommerce.inventoryservice.repository;
+
+import java.time.Instant;
+
+public record ReservationExpiry(Long id, String reservationId, Instant expiresAt) {
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.inventoryservice.repository;
+
+import com.ecommerce.inventoryservice.model.Reservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+	Optional<Reservation> findByReservationId(String reservationId);
+
+	// Confirm, release and expiry all go through this lock, so exactly one of them settles a reservation
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select r from Reservation r where r.reservationId = :reservationId")
+	Optional<Reservation> lockByReservationId(@Param("reservationId") String reservationId);
+
+	// Keyset scan of the expiry index used to rebuild the timing wheel after a restart
+	@Query("select new com.ecommerce.inventoryservice.repository.ReservationExpiry(r.id, r.reservationId, r.expiresAt) "
+			+ "from Reservation r where r.id > :afterId order by r.id")
+	List<ReservationExpiry> findExpiriesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+	@Query("select r.reservationId from Reservation r where r.expiresAt <= :now order by r.expiresAt")
+	List<String> findDueReservationIds(@Param("now") Instant now, Pageable pageable);
+}
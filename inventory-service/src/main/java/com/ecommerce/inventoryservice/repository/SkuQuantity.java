@@ -0,0 +1,4 @@
+package com.ecommerce.inventoryservice.repository;
+
+public record SkuQuantity(String skuCode, Long quantity) {
+}
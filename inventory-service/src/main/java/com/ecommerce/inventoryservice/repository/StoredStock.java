@@ -0,0 +1,5 @@
+package com.ecommerce.inventoryservice.repository;
+
+// Read as a projection, so it reflects the database even when the rows are already managed in the persistence context
+public record StoredStock(String skuCode, Integer quantity, Integer buckets, Long productVersion) {
+}
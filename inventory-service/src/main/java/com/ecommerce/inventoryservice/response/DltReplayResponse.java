@@ -0,0 +1,16 @@
+package com.ecommerce.inventoryservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DltReplayResponse {
+
+	private String topic;
+	private int replayed;
+}
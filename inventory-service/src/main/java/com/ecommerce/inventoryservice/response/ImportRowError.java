@@ -0,0 +1,17 @@
+package com.ecommerce.inventoryservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImportRowError {
+
+	// 1-based line in the uploaded body
+	private long line;
+	private String message;
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.inventoryservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryImportResponse {
+
+	private long rowsRead;
+	private long rowsImported;
+	private long rowsRejected;
+	private long elapsedMillis;
+	private long rowsPerSecond;
+
+	// At most inventory.import.max-errors entries; rowsRejected has the full count
+	private List<ImportRowError> errors;
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.inventoryservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class InventoryPageResponse {
+
+	private List<InventoryResponse> inventories;
+	private String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.inventoryservice.response;
+
+import com.ecommerce.inventoryservice.dto.ReservationItem;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationResponse {
+
+	private String reservationId;
+	private Instant expiresAt;
+
+	private List<ReservationItem> items;
+}
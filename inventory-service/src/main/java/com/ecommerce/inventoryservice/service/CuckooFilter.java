@@ -0,0 +1,142 @@
+package com.ecommerce.inventoryservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Cuckoo filter with 16-bit fingerprints in buckets of four. An item lives in one of two buckets, the second derived
+// from the first and the fingerprint alone, so entries can be moved without the original key. Add-only: SkuFilter
+// can't tell which SKUs share a fingerprint, so it leaves deleted SKUs to the next rebuild. Not thread-safe;
+// SkuFilter guards writes, and a read that overlapped one is repeated
+class CuckooFilter {
+
+	private static final int SLOTS = 4;
+	private static final int MAX_KICKS = 500;
+	private static final double TARGET_LOAD = 0.95;
+
+	private final short[] table;
+	private final int bucketMask;
+	private long count;
+	private boolean full;
+
+	CuckooFilter(long capacity) {
+		long buckets = Long.highestOneBit(Math.max(1, (long) Math.ceil(capacity / (SLOTS * TARGET_LOAD))) * 2 - 1);
+		if (buckets * SLOTS > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Cuckoo filter capacity too large: " + capacity);
+		}
+		this.table = new short[(int) buckets * SLOTS];
+		this.bucketMask = (int) buckets - 1;
+	}
+
+	// False once the table is too full to place the item; the filter then stays full until it is rebuilt larger
+	boolean add(String item) {
+		if (full) {
+			return false;
+		}
+		long hash = hash(item);
+		short fingerprint = fingerprint(hash);
+		int first = index(hash);
+		int second = alternate(first, fingerprint);
+		if (insert(first, fingerprint) || insert(second, fingerprint)) {
+			count++;
+			return true;
+		}
+
+		// Both buckets are full: evict a random entry to its other bucket, and so on
+		int bucket = ThreadLocalRandom.current().nextBoolean() ? first : second;
+		for (int kick = 0; kick < MAX_KICKS; kick++) {
+			int slot = bucket * SLOTS + ThreadLocalRandom.current().nextInt(SLOTS);
+			short evicted = table[slot];
+			table[slot] = fingerprint;
+			fingerprint = evicted;
+			bucket = alternate(bucket, fingerprint);
+			if (insert(bucket, fingerprint)) {
+				count++;
+				return true;
+			}
+		}
+		// The fingerprint left homeless may belong to an earlier item; a full filter answers "maybe" for everything
+		full = true;
+		return false;
+	}
+
+	boolean mightContain(String item) {
+		if (full) {
+			return true;
+		}
+		long hash = hash(item);
+		short fingerprint = fingerprint(hash);
+		int first = index(hash);
+		return contains(first, fingerprint) || contains(alternate(first, fingerprint), fingerprint);
+	}
+
+	boolean isFull() {
+		return full;
+	}
+
+	long count() {
+		return count;
+	}
+
+	long memoryBytes() {
+		return (long) table.length * Short.BYTES;
+	}
+
+	// Upper bound at the current load: a lookup compares against up to 2 * SLOTS fingerprints
+	double expectedFalsePositiveRate() {
+		double load = (double) count / table.length;
+		return 1 - Math.pow(1 - 1.0 / 65535, 2 * SLOTS * load);
+	}
+
+	private boolean insert(int bucket, short fingerprint) {
+		for (int slot = bucket * SLOTS; slot < (bucket + 1) * SLOTS; slot++) {
+			if (table[slot] == 0) {
+				table[slot] = fingerprint;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean contains(int bucket, short fingerprint) {
+		for (int slot = bucket * SLOTS; slot < (bucket + 1) * SLOTS; slot++) {
+			if (table[slot] == fingerprint) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int index(long hash) {
+		return (int) hash & bucketMask;
+	}
+
+	// Partial-key cuckoo hashing: applying it twice returns the original bucket
+	private int alternate(int bucket, short fingerprint) {
+		return (bucket ^ (int) mix(fingerprint & 0xFFFF)) & bucketMask;
+	}
+
+	// Zero marks an empty slot
+	private static short fingerprint(long hash) {
+		short fingerprint = (short) (hash >>> 48);
+		return fingerprint == 0 ? 1 : fingerprint;
+	}
+
+	// FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so all 64 bits are usable
+	private static long hash(String item) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : item.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b;
+			hash *= 0x100000001b3L;
+		}
+		return mix(hash);
+	}
+
+	private static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb93fe53e94cbL;
+		value ^= value >>> 33;
+		return value;
+	}
+}
@@ -0,0 +1,248 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.exception.InventoryNotFoundException;
+import com.ecommerce.inventoryservice.model.Inventory;
+import com.ecommerce.inventoryservice.model.InventoryBucket;
+import com.ecommerce.inventoryservice.repository.InventoryBucketRepository;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.ecommerce.inventoryservice.repository.SkuQuantity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Opt-in hot-SKU mode: a SKU's stock is split across K t_inventory_bucket rows so concurrent decrements lock
+// different rows. A decrement locks the first bucket that can cover it and isn't held by another decrement; only
+// when there is none are all buckets locked and drained together. Whatever locks both a SKU's buckets and its
+// t_inventory row locks the buckets first. The rebalancer periodically evens the buckets out and folds stock that
+// landed on the t_inventory row back into them
+@Service
+@Slf4j
+public class HotSkuStockService {
+
+	private final InventoryRepository inventoryRepository;
+	private final InventoryBucketRepository inventoryBucketRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final EntityManager entityManager;
+	private final Map<String, Integer> bucketsBySku = new ConcurrentHashMap<>();
+	private final Counter spreadTakes;
+	private final Counter rebalances;
+
+	@Value("${inventory.hot-sku.max-buckets:64}")
+	private int maxBuckets;
+
+	public HotSkuStockService(InventoryRepository inventoryRepository,
+							  InventoryBucketRepository inventoryBucketRepository,
+							  TransactionTemplate transactionTemplate,
+							  EntityManager entityManager,
+							  MeterRegistry meterRegistry) {
+		this.inventoryRepository = inventoryRepository;
+		this.inventoryBucketRepository = inventoryBucketRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.entityManager = entityManager;
+		this.spreadTakes = Counter.builder("inventory.hot_sku.spread_takes")
+				.description("Hot-SKU decrements no single bucket could cover")
+				.register(meterRegistry);
+		this.rebalances = Counter.builder("inventory.hot_sku.rebalances")
+				.description("Hot-SKU bucket rebalances")
+				.register(meterRegistry);
+	}
+
+	// Other instances learn about hot SKUs from this refresh; a stale view only costs a slower path, never stock
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${inventory.hot-sku.refresh-interval-ms:5000}")
+	public void refreshHotSkuCodes() {
+		Map<String, Integer> current = inventoryRepository.findHotSkus().stream()
+				.collect(Collectors.toMap(Inventory::getSkuCode, Inventory::getBuckets));
+		bucketsBySku.keySet().retainAll(current.keySet());
+		bucketsBySku.putAll(current);
+	}
+
+	public boolean isHot(String skuCode) {
+		return bucketsBySku.containsKey(skuCode);
+	}
+
+	public boolean recheck(String skuCode) {
+		Integer buckets = inventoryRepository.findBySkuCode(skuCode).map(Inventory::getBuckets).orElse(null);
+		if (buckets == null || buckets == 0) {
+			bucketsBySku.remove(skuCode);
+			return false;
+		}
+		bucketsBySku.put(skuCode, buckets);
+		return true;
+	}
+
+	@Transactional
+	public void enable(String skuCode, int buckets) {
+		if (buckets < 2 || buckets > maxBuckets) {
+			throw new IllegalArgumentException("Buckets must be between 2 and " + maxBuckets + ": " + buckets);
+		}
+		List<InventoryBucket> existing = inventoryBucketRepository.lockBySkuCode(skuCode);
+		Inventory inventory = lock(skuCode);
+		int total = inventory.getQuantity() + existing.stream().mapToInt(InventoryBucket::getQuantity).sum();
+
+		inventoryBucketRepository.deleteAllInBatch(existing);
+		List<InventoryBucket> created = new ArrayList<>(buckets);
+		for (int bucket = 0; bucket < buckets; bucket++) {
+			created.add(InventoryBucket.builder().skuCode(skuCode).bucket(bucket).quantity(share(total, buckets, bucket)).build());
+		}
+		inventoryBucketRepository.saveAll(created);
+		inventory.setQuantity(0);
+		inventory.setBuckets(buckets);
+		bucketsBySku.put(skuCode, buckets);
+		log.info("SKU {} is now hot with {} buckets holding {}", skuCode, buckets, total);
+	}
+
+	@Transactional
+	public void disable(String skuCode) {
+		int bucketed = inventoryBucketRepository.lockBySkuCode(skuCode).stream().mapToInt(InventoryBucket::getQuantity).sum();
+		Inventory inventory = lock(skuCode);
+		inventoryBucketRepository.deleteBySkuCode(skuCode);
+		inventory.setQuantity(inventory.getQuantity() + bucketed);
+		inventory.setBuckets(null);
+		bucketsBySku.remove(skuCode);
+		log.info("SKU {} is no longer hot", skuCode);
+	}
+
+	// Runs in the caller's transaction, which must be READ COMMITTED: a conditional update that matched nothing then
+	// keeps no lock, so nothing is held when takeSpread locks the buckets and the row. False means the SKU's total
+	// stock can't cover the quantity
+	@Transactional(propagation = Propagation.MANDATORY)
+	public boolean take(String skuCode, int quantity) {
+		Optional<Integer> bucket = inventoryBucketRepository.lockBucketWithStock(skuCode, quantity);
+		if (bucket.isPresent() && inventoryBucketRepository.takeFromBucket(skuCode, bucket.get(), quantity) > 0) {
+			return true;
+		}
+		spreadTakes.increment();
+		return takeSpread(skuCode, quantity);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void put(String skuCode, int quantity) {
+		int bucket = ThreadLocalRandom.current().nextInt(bucketsBySku.getOrDefault(skuCode, 1));
+		if (inventoryBucketRepository.addToBucket(skuCode, bucket, quantity) == 0) {
+			// Hot mode was switched off meanwhile; the row is the whole stock again
+			inventoryRepository.releaseStock(skuCode, quantity);
+		}
+	}
+
+	public Map<String, Integer> bucketTotals(Collection<String> skuCodes) {
+		if (skuCodes.isEmpty()) {
+			return Map.of();
+		}
+		return inventoryBucketRepository.sumBySkuCodes(skuCodes).stream()
+				.collect(Collectors.toMap(SkuQuantity::skuCode, total -> total.quantity().intValue()));
+	}
+
+	// Absolute quantity writes go to the t_inventory row; empty the buckets so the row holds the whole stock
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void clearBuckets(Collection<String> skuCodes) {
+		List<String> hot = skuCodes.stream().filter(this::isHot).toList();
+		if (!hot.isEmpty()) {
+			inventoryBucketRepository.emptyBySkuCodes(hot);
+		}
+	}
+
+	// Lets a batch take the buckets of the hot SKUs among its rows before it writes the rows
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void lockBuckets(Collection<String> skuCodes) {
+		List<String> hot = skuCodes.stream().filter(this::isHot).toList();
+		if (!hot.isEmpty()) {
+			inventoryBucketRepository.lockBySkuCodeIn(hot);
+		}
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void deleteBuckets(String skuCode) {
+		if (bucketsBySku.remove(skuCode) != null) {
+			inventoryBucketRepository.deleteBySkuCode(skuCode);
+		}
+	}
+
+	// Skew is checked with plain reads outside any transaction; only a skewed SKU gets its buckets and row locked
+	@Scheduled(fixedDelayString = "${inventory.hot-sku.rebalance-interval-ms:1000}")
+	public void rebalance() {
+		for (String skuCode : bucketsBySku.keySet()) {
+			try {
+				Integer rowQuantity = inventoryRepository.findBySkuCode(skuCode).map(Inventory::getQuantity).orElse(null);
+				if (rowQuantity != null && isSkewed(rowQuantity, inventoryBucketRepository.findBySkuCode(skuCode))) {
+					transactionTemplate.executeWithoutResult(status -> rebalance(skuCode));
+				}
+			} catch (RuntimeException e) {
+				log.warn("Failed to rebalance hot SKU {}", skuCode, e);
+			}
+		}
+	}
+
+	private void rebalance(String skuCode) {
+		List<InventoryBucket> buckets = inventoryBucketRepository.lockBySkuCode(skuCode);
+		Inventory inventory = lock(skuCode);
+		if (!isSkewed(inventory.getQuantity(), buckets)) {
+			return;
+		}
+		int total = inventory.getQuantity() + buckets.stream().mapToInt(InventoryBucket::getQuantity).sum();
+		for (InventoryBucket bucket : buckets) {
+			bucket.setQuantity(share(total, buckets.size(), bucket.getBucket()));
+		}
+		inventory.setQuantity(0);
+		rebalances.increment();
+	}
+
+	// Skewed when stock landed on the row, or some bucket ran dry (or nearly) while another still holds a lot
+	private static boolean isSkewed(int rowQuantity, List<InventoryBucket> buckets) {
+		if (buckets.isEmpty()) {
+			return false;
+		}
+		int min = buckets.stream().mapToInt(InventoryBucket::getQuantity).min().orElse(0);
+		int max = buckets.stream().mapToInt(InventoryBucket::getQuantity).max().orElse(0);
+		return rowQuantity != 0 || (max - min) > Math.max(1, max / 2);
+	}
+
+	private boolean takeSpread(String skuCode, int quantity) {
+		List<InventoryBucket> buckets = inventoryBucketRepository.lockBySkuCode(skuCode);
+		Inventory inventory = lock(skuCode);
+		int total = inventory.getQuantity() + buckets.stream().mapToInt(InventoryBucket::getQuantity).sum();
+		if (total < quantity) {
+			return false;
+		}
+		int remaining = quantity;
+		for (InventoryBucket bucket : buckets) {
+			int taken = Math.min(bucket.getQuantity(), remaining);
+			bucket.setQuantity(bucket.getQuantity() - taken);
+			remaining -= taken;
+		}
+		inventory.setQuantity(inventory.getQuantity() - remaining);
+		return true;
+	}
+
+	// The locking query hands back a row this transaction already loaded (recheck does) as it was read then, so it is
+	// re-read under the lock; otherwise stock a concurrent rebalance moved into the buckets would be counted twice
+	private Inventory lock(String skuCode) {
+		Inventory inventory = inventoryRepository.lockBySkuCode(skuCode)
+				.orElseThrow(() -> new InventoryNotFoundException("Inventory not found for SKU code: " + skuCode));
+		entityManager.refresh(inventory, LockModeType.PESSIMISTIC_WRITE);
+		return inventory;
+	}
+
+	private static int share(int total, int buckets, int bucket) {
+		return total / buckets + (bucket < total % buckets ? 1 : 0);
+	}
+}
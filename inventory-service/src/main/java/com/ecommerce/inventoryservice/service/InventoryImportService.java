@@ -0,0 +1,279 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.repository.InventoryChange;
+import com.ecommerce.inventoryservice.response.ImportRowError;
+import com.ecommerce.inventoryservice.response.InventoryImportResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bulk import of absolute quantities from a CSV (sku,quantity) or NDJSON ({"skuCode","quantity"}) body. The body
+// is read a line at a time and valid rows are split into lanes by SKU hash, like ProductEventLanes; a full lane
+// buffer becomes one batch written in its own transaction. A lane's batches run one after another, so a SKU
+// repeated in the file ends at its last value, and the lanes run in parallel on their own connections. Parsing
+// waits whenever writers * 2 batches are outstanding, so the body is never buffered beyond that. A batch that fails
+// is written again a row at a time, so the errors name the lines at fault
+@Service
+@Slf4j
+public class InventoryImportService {
+
+	private static final int MAX_SKU_CODE_LENGTH = 255;
+
+	private final InventoryService inventoryService;
+	private final ObjectMapper objectMapper;
+	private final ThreadPoolTaskExecutor executor;
+	private final Semaphore outstandingBatches;
+	private final Counter importedRows;
+	private final Counter rejectedRows;
+	private final Timer importTimer;
+	private final int writers;
+
+	@Value("${inventory.import.batch-size:1000}")
+	private int batchSize;
+
+	@Value("${inventory.import.max-errors:1000}")
+	private int maxErrors;
+
+	public InventoryImportService(InventoryService inventoryService,
+								  ObjectMapper objectMapper,
+								  MeterRegistry meterRegistry,
+								  @Value("${inventory.import.writers:4}") int writers) {
+		this.inventoryService = inventoryService;
+		this.objectMapper = objectMapper;
+		this.writers = writers;
+		this.outstandingBatches = new Semaphore(writers * 2);
+		// Shared by concurrent imports; the semaphore bounds what is queued. Keep writers below the JDBC pool size
+		this.executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(writers);
+		executor.setMaxPoolSize(writers);
+		executor.setQueueCapacity(writers * 2);
+		executor.setThreadNamePrefix("inventory-import-");
+		executor.initialize();
+		this.importedRows = Counter.builder("inventory.import.rows")
+				.description("Rows processed by bulk inventory imports")
+				.tag("outcome", "imported")
+				.register(meterRegistry);
+		this.rejectedRows = Counter.builder("inventory.import.rows")
+				.description("Rows processed by bulk inventory imports")
+				.tag("outcome", "rejected")
+				.register(meterRegistry);
+		this.importTimer = Timer.builder("inventory.import")
+				.description("Duration of bulk inventory imports")
+				.register(meterRegistry);
+	}
+
+	public InventoryImportResponse importInventory(InputStream body, MediaType contentType) {
+		boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+		long started = System.nanoTime();
+		ImportRun run = new ImportRun();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16)) {
+			String line;
+			long lineNumber = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank() || (!ndjson && lineNumber == 1 && isCsvHeader(line))) {
+					continue;
+				}
+				run.rowsRead++;
+				try {
+					run.add(lineNumber, ndjson ? parseJson(line) : parseCsv(line));
+				} catch (IllegalArgumentException e) {
+					run.reject(lineNumber, 1, e.getMessage());
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to read inventory import body", e);
+		} finally {
+			run.finish();
+		}
+
+		long elapsedNanos = System.nanoTime() - started;
+		importTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+		long elapsedMillis = elapsedNanos / 1_000_000;
+		InventoryImportResponse response = InventoryImportResponse.builder()
+				.rowsRead(run.rowsRead)
+				.rowsImported(run.imported.get())
+				.rowsRejected(run.rejected.get())
+				.elapsedMillis(elapsedMillis)
+				.rowsPerSecond(run.rowsRead * 1000 / Math.max(elapsedMillis, 1))
+				.errors(run.errors)
+				.build();
+		log.info("Imported {} of {} inventory rows in {} ms ({} rows/s), {} rejected", response.getRowsImported(),
+				response.getRowsRead(), elapsedMillis, response.getRowsPerSecond(), response.getRowsRejected());
+		return response;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	// A first line whose quantity isn't a number is taken as the header
+	private static boolean isCsvHeader(String line) {
+		String[] fields = line.split(",", -1);
+		return fields.length == 2 && !unquote(fields[1]).matches("-?\\d+");
+	}
+
+	private InventoryChange parseCsv(String line) {
+		String[] fields = line.split(",", -1);
+		if (fields.length != 2) {
+			throw new IllegalArgumentException("Expected 2 fields (sku,quantity) but found " + fields.length);
+		}
+		return validate(unquote(fields[0]), parseQuantity(unquote(fields[1])));
+	}
+
+	private InventoryChange parseJson(String line) {
+		JsonNode row;
+		try {
+			row = objectMapper.readTree(line);
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+		}
+		JsonNode skuCode = row.path("skuCode");
+		JsonNode quantity = row.path("quantity");
+		if (!quantity.isIntegralNumber() || !quantity.canConvertToInt()) {
+			throw new IllegalArgumentException("Quantity must be an integer");
+		}
+		return validate(skuCode.isTextual() ? skuCode.asText().trim() : "", quantity.intValue());
+	}
+
+	private InventoryChange validate(String skuCode, int quantity) {
+		if (skuCode.isEmpty()) {
+			throw new IllegalArgumentException("SKU code cannot be blank");
+		}
+		if (skuCode.length() > MAX_SKU_CODE_LENGTH) {
+			throw new IllegalArgumentException("SKU code is longer than " + MAX_SKU_CODE_LENGTH + " characters");
+		}
+		if (quantity < 0) {
+			throw new IllegalArgumentException("Quantity must be greater than or equal to zero");
+		}
+		return new InventoryChange(skuCode, quantity, null);
+	}
+
+	private static int parseQuantity(String quantity) {
+		try {
+			return Integer.parseInt(quantity);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Quantity must be an integer: " + quantity);
+		}
+	}
+
+	private static String unquote(String field) {
+		String trimmed = field.trim();
+		return trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")
+				? trimmed.substring(1, trimmed.length() - 1).trim() : trimmed;
+	}
+
+	// State of one import. Rows are added from the request thread only; batch outcomes are recorded from writers
+	private final class ImportRun {
+
+		private final List<List<InventoryChange>> buffers = new ArrayList<>(writers);
+		private final List<List<Long>> lineNumbers = new ArrayList<>(writers);
+		private final List<CompletableFuture<Void>> lanes = new ArrayList<>(writers);
+		private final List<ImportRowError> errors = Collections.synchronizedList(new ArrayList<>());
+		private final AtomicLong imported = new AtomicLong();
+		private final AtomicLong rejected = new AtomicLong();
+		private long rowsRead;
+
+		private ImportRun() {
+			for (int i = 0; i < writers; i++) {
+				buffers.add(new ArrayList<>(batchSize));
+				lineNumbers.add(new ArrayList<>(batchSize));
+				lanes.add(CompletableFuture.completedFuture(null));
+			}
+		}
+
+		private void add(long lineNumber, InventoryChange change) {
+			int lane = Math.floorMod(change.skuCode().hashCode(), writers);
+			List<InventoryChange> buffer = buffers.get(lane);
+			buffer.add(change);
+			lineNumbers.get(lane).add(lineNumber);
+			if (buffer.size() >= batchSize) {
+				submit(lane);
+			}
+		}
+
+		private void submit(int lane) {
+			List<InventoryChange> batch = buffers.get(lane);
+			List<Long> lines = lineNumbers.get(lane);
+			buffers.set(lane, new ArrayList<>(batchSize));
+			lineNumbers.set(lane, new ArrayList<>(batchSize));
+			outstandingBatches.acquireUninterruptibly();
+			lanes.set(lane, lanes.get(lane).thenRunAsync(() -> {
+				try {
+					write(batch, lines);
+				} finally {
+					outstandingBatches.release();
+				}
+			}, executor));
+		}
+
+		// The failed batch was rolled back as a whole, so its rows are replayed in file order
+		private void write(List<InventoryChange> batch, List<Long> lines) {
+			try {
+				inventoryService.importInventory(batch);
+				imported(batch.size());
+				return;
+			} catch (RuntimeException e) {
+				log.warn("Failed to import batch of {} inventory rows starting at line {}, retrying row by row",
+						batch.size(), lines.get(0), e);
+			}
+			for (int i = 0; i < batch.size(); i++) {
+				try {
+					inventoryService.importInventory(List.of(batch.get(i)));
+					imported(1);
+				} catch (RuntimeException e) {
+					reject(lines.get(i), 1, "Failed to import row: " + e.getMessage());
+				}
+			}
+		}
+
+		private void imported(int rows) {
+			imported.addAndGet(rows);
+			importedRows.increment(rows);
+		}
+
+		// Flushes the partial buffers and waits for every lane, also when reading the body failed
+		private void finish() {
+			for (int lane = 0; lane < writers; lane++) {
+				if (!buffers.get(lane).isEmpty()) {
+					submit(lane);
+				}
+			}
+			CompletableFuture.allOf(lanes.toArray(CompletableFuture[]::new)).join();
+		}
+
+		private void reject(long lineNumber, int rows, String message) {
+			rejected.addAndGet(rows);
+			rejectedRows.increment(rows);
+			synchronized (errors) {
+				if (errors.size() < maxErrors) {
+					errors.add(new ImportRowError(lineNumber, message));
+				}
+			}
+		}
+	}
+}
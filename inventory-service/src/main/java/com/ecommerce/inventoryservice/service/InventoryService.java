@@ -1,69 +1,158 @@
 package com.ecommerce.inventoryservice.service;
 
+import com.ecommerce.events.ProductEvent;
+import com.ecommerce.inventoryservice.dto.InventoryChangedEvent;
 import com.ecommerce.inventoryservice.dto.InventoryRequest;
+import com.ecommerce.inventoryservice.dto.ReservationHeldEvent;
+import com.ecommerce.inventoryservice.dto.ReservationItem;
+import com.ecommerce.inventoryservice.dto.ReservationRequest;
+import com.ecommerce.inventoryservice.dto.ReservationSettledEvent;
+import com.ecommerce.inventoryservice.exception.InsufficientInventoryException;
 import com.ecommerce.inventoryservice.exception.InventoryNotFoundException;
 import com.ecommerce.inventoryservice.model.Inventory;
+import com.ecommerce.inventoryservice.model.Reservation;
+import com.ecommerce.inventoryservice.model.ReservationLine;
+import com.ecommerce.inventoryservice.repository.InventoryBatchRepository;
+import com.ecommerce.inventoryservice.repository.InventoryChange;
 import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.ecommerce.inventoryservice.repository.ReservationRepository;
+import com.ecommerce.inventoryservice.response.InventoryPageResponse;
 import com.ecommerce.inventoryservice.response.InventoryResponse;
+import com.ecommerce.inventoryservice.response.ReservationResponse;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class InventoryService {
 
+	private static final int MAX_PAGE_SIZE = 500;
+
 	private final InventoryRepository inventoryRepository;
+	private final InventoryBatchRepository inventoryBatchRepository;
+	private final ReservationRepository reservationRepository;
+	private final HotSkuStockService hotSkuStockService;
+	private final StockLedger stockLedger;
+	private final StockCache stockCache;
+	private final SkuFilter skuFilter;
+	private final ApplicationEventPublisher eventPublisher;
+	private final EntityManager entityManager;
 
-	@Transactional(readOnly = true)
+	@Value("${inventory.reservation.ttl:15m}")
+	private Duration reservationTtl;
+
+	@Value("${inventory.availability.max-skus:10000}")
+	private int maxAvailabilitySkus;
+
+	// Answered from StockCache; unknown SKUs are left out of the response, as before
 	public List<InventoryResponse> isInStock(List<String> skuCode) {
 		log.info("Checking stock for SKU codes: {}", skuCode);
-		return inventoryRepository.findBySkuCodeIn(skuCode).stream()
-				.map(inventory -> InventoryResponse.builder()
-						.skuCode(inventory.getSkuCode())
-						.quantity(inventory.getQuantity())
-						.isInStock(inventory.getQuantity() > 0)
-						.build())
+		return storedQuantities(skuCode).entrySet().stream()
+				.map(entry -> mapToResponse(entry.getKey(), entry.getValue()))
+				.toList();
+	}
+
+	// Every requested SKU once, in request order; unknown SKUs come back without a quantity
+	public List<InventoryResponse> getAvailability(List<String> skuCodes) {
+		if (skuCodes.size() > maxAvailabilitySkus) {
+			throw new IllegalArgumentException("At most " + maxAvailabilitySkus + " SKU codes can be checked at once");
+		}
+		log.info("Checking availability for {} SKU codes", skuCodes.size());
+		Map<String, Integer> quantities = storedQuantities(skuCodes);
+		return skuCodes.stream()
+				.distinct()
+				.map(skuCode -> quantities.containsKey(skuCode) ? mapToResponse(skuCode, quantities.get(skuCode))
+						: InventoryResponse.builder().skuCode(skuCode).isInStock(false).build())
 				.toList();
 	}
 
 	@Transactional(readOnly = true)
 	public InventoryResponse getInventoryBySkuCode(String skuCode) {
 		log.info("Fetching inventory for SKU code: {}", skuCode);
+		if (!skuFilter.mightContain(skuCode)) {
+			throw new InventoryNotFoundException("Inventory not found for SKU code: " + skuCode);
+		}
 		Inventory inventory = inventoryRepository.findBySkuCode(skuCode)
-				.orElseThrow(() -> new InventoryNotFoundException("Inventory not found for SKU code: " + skuCode));
+				.orElseThrow(() -> {
+					skuFilter.recordFalsePositives(1);
+					return new InventoryNotFoundException("Inventory not found for SKU code: " + skuCode);
+				});
 		return mapToResponse(inventory);
 	}
 
+	// Seek pagination on sku_code: each page starts right after the cursor of the previous one, so deep pages cost
+	// the same as the first
 	@Transactional(readOnly = true)
-	public List<InventoryResponse> getAllInventory() {
-		log.info("Fetching all inventory");
-		return inventoryRepository.findAll().stream()
-				.map(this::mapToResponse)
-				.toList();
+	public InventoryPageResponse getInventoryPage(String cursor, int size) {
+		PageRequest limit = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_PAGE_SIZE), Sort.by("skuCode"));
+		String afterSkuCode = cursor == null || cursor.isBlank() ? "" : decodeCursor(cursor);
+		List<Inventory> inventories = inventoryRepository.findBySkuCodeGreaterThan(afterSkuCode, limit);
+		Map<String, Integer> bucketTotals = bucketTotals(inventories);
+		String nextCursor = inventories.size() < limit.getPageSize() ? null
+				: encodeCursor(inventories.get(inventories.size() - 1).getSkuCode());
+		return InventoryPageResponse.builder()
+				.inventories(inventories.stream().map(inventory -> mapToResponse(inventory, bucketTotals)).toList())
+				.nextCursor(nextCursor)
+				.build();
+	}
+
+	// Hands every row to the consumer as it comes off the cursor and detaches it straight away, so neither the
+	// result set nor the persistence context grows with the table. Hot SKUs are few; their bucket totals are read up front
+	@Transactional(readOnly = true)
+	public void exportInventory(Consumer<InventoryResponse> consumer) {
+		log.info("Exporting all inventory");
+		Map<String, Integer> bucketTotals = bucketTotals(inventoryRepository.findHotSkus());
+		try (Stream<Inventory> inventories = inventoryRepository.streamAll()) {
+			inventories.forEach(inventory -> {
+				consumer.accept(mapToResponse(inventory, bucketTotals));
+				entityManager.detach(inventory);
+			});
+		}
 	}
 
 	@Transactional
 	public InventoryResponse createInventory(InventoryRequest request) {
 		log.info("Creating inventory for SKU code: {}", request.getSkuCode());
-		
-		// Check if inventory already exists
-		Optional<Inventory> existingInventory = inventoryRepository.findBySkuCode(request.getSkuCode());
-		if (existingInventory.isPresent()) {
-			throw new IllegalArgumentException("Inventory already exists for SKU code: " + request.getSkuCode());
-		}
 
 		Inventory inventory = Inventory.builder()
 				.skuCode(request.getSkuCode())
 				.quantity(request.getQuantity())
 				.build();
 
-		Inventory savedInventory = inventoryRepository.save(inventory);
+		// The unique index on sku_code is the existence check
+		Inventory savedInventory;
+		try {
+			savedInventory = saveAndPublish(inventory);
+		} catch (DataIntegrityViolationException e) {
+			throw new IllegalArgumentException("Inventory already exists for SKU code: " + request.getSkuCode());
+		}
 		log.info("Inventory created successfully for SKU code: {}", savedInventory.getSkuCode());
 		return mapToResponse(savedInventory);
 	}
@@ -74,8 +163,10 @@ public class InventoryService {
 		Inventory inventory = inventoryRepository.findBySkuCode(skuCode)
 				.orElseThrow(() -> new InventoryNotFoundException("Inventory not found for SKU code: " + skuCode));
 
+		stockLedger.discard(List.of(skuCode));
+		hotSkuStockService.clearBuckets(List.of(skuCode));
 		inventory.setQuantity(request.getQuantity());
-		Inventory updatedInventory = inventoryRepository.save(inventory);
+		Inventory updatedInventory = saveAndPublish(inventory);
 		log.info("Inventory updated successfully for SKU code: {}", updatedInventory.getSkuCode());
 		return mapToResponse(updatedInventory);
 	}
@@ -83,100 +174,381 @@ public class InventoryService {
 	@Transactional
 	public void deleteInventory(String skuCode) {
 		log.info("Deleting inventory for SKU code: {}", skuCode);
+		stockLedger.discard(List.of(skuCode));
 		Inventory inventory = inventoryRepository.findBySkuCode(skuCode)
 				.orElseThrow(() -> new InventoryNotFoundException("Inventory not found for SKU code: " + skuCode));
-		inventoryRepository.delete(inventory);
+		deleteAndPublish(inventory);
 		log.info("Inventory deleted successfully for SKU code: {}", skuCode);
 	}
 
-	@Transactional
+	@Transactional(isolation = Isolation.READ_COMMITTED)
 	public InventoryResponse reduceInventory(String skuCode, Integer quantity) {
 		log.info("Reducing inventory for SKU code: {} by quantity: {}", skuCode, quantity);
-		Inventory inventory = inventoryRepository.findBySkuCode(skuCode)
-				.orElseThrow(() -> new InventoryNotFoundException("Inventory not found for SKU code: " + skuCode));
-
-		if (inventory.getQuantity() < quantity) {
-			throw new IllegalArgumentException("Insufficient inventory. Available: " + inventory.getQuantity() + ", Requested: " + quantity);
+		// The same conditional decrement as a reservation, so concurrent reductions can't overwrite each other
+		if (!takeStock(skuCode, quantity)) {
+			if (!inventoryRepository.existsBySkuCode(skuCode)) {
+				throw new InventoryNotFoundException("Inventory not found for SKU code: " + skuCode);
+			}
+			throw new IllegalArgumentException("Insufficient inventory. Requested: " + quantity);
 		}
-
-		inventory.setQuantity(inventory.getQuantity() - quantity);
-		Inventory updatedInventory = inventoryRepository.save(inventory);
-		log.info("Inventory reduced successfully for SKU code: {}. Remaining quantity: {}", 
-				updatedInventory.getSkuCode(), updatedInventory.getQuantity());
-		return mapToResponse(updatedInventory);
+		InventoryResponse response = publishChanges(Map.of(skuCode, quantity)).get(0);
+		log.info("Inventory reduced successfully for SKU code: {}. Remaining quantity: {}",
+				response.getSkuCode(), response.getQuantity());
+		return response;
 	}
 
 	@Transactional
 	public InventoryResponse addInventory(String skuCode, Integer quantity) {
 		log.info("Adding inventory for SKU code: {} by quantity: {}", skuCode, quantity);
+		if (hotSkuStockService.isHot(skuCode)) {
+			hotSkuStockService.put(skuCode, quantity);
+			return publishChanges(Map.of(skuCode, quantity)).get(0);
+		}
 		Inventory inventory = inventoryRepository.findBySkuCode(skuCode)
 				.orElseThrow(() -> new InventoryNotFoundException("Inventory not found for SKU code: " + skuCode));
+		if (stockLedger.isEnabled()) {
+			stockLedger.record(skuCode, quantity);
+			return mapToResponse(inventory);
+		}
 
 		inventory.setQuantity(inventory.getQuantity() + quantity);
-		Inventory updatedInventory = inventoryRepository.save(inventory);
+		Inventory updatedInventory = saveAndPublish(inventory);
 		log.info("Inventory added successfully for SKU code: {}. New quantity: {}", 
 				updatedInventory.getSkuCode(), updatedInventory.getQuantity());
 		return mapToResponse(updatedInventory);
 	}
 
+	// READ COMMITTED so a conditional decrement that fails keeps no row lock; see HotSkuStockService.take
+	@Transactional(isolation = Isolation.READ_COMMITTED)
+	public ReservationResponse reserveInventory(ReservationRequest request) {
+		String reservationId = request.getReservationId() != null ? request.getReservationId() : UUID.randomUUID().toString();
+		Optional<Reservation> existingReservation = reservationRepository.findByReservationId(reservationId);
+		if (existingReservation.isPresent()) {
+			log.info("Reservation {} already held", reservationId);
+			return toReservationResponse(existingReservation.get());
+		}
+
+		Map<String, Integer> quantities = mergeBySkuCode(request.getItems());
+		log.info("Reserving inventory for SKU codes: {}", quantities.keySet());
+
+		// Conditional decrements in SKU order: concurrent reservations lock rows in the same order and
+		// a short row rolls the whole batch back
+		for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+			if (!takeStock(entry.getKey(), entry.getValue())) {
+				throw new InsufficientInventoryException("Insufficient inventory for SKU code: " + entry.getKey()
+						+ ", Requested: " + entry.getValue());
+			}
+		}
+
+		// The hold is released again unless it is confirmed before it expires
+		Reservation reservation = reservationRepository.save(Reservation.builder()
+				.reservationId(reservationId)
+				.expiresAt(Instant.now().plus(reservationTtl))
+				.items(quantities.entrySet().stream()
+						.map(entry -> new ReservationLine(entry.getKey(), entry.getValue()))
+						.toList())
+				.build());
+		log.info("Inventory reserved successfully for SKU codes: {}", quantities.keySet());
+		publishChanges(quantities);
+		eventPublisher.publishEvent(new ReservationHeldEvent(reservationId, reservation.getExpiresAt()));
+		return toReservationResponse(reservation);
+	}
+
+	// Without a reservation id this is the legacy, unconditional restock of the given items. With one, only a
+	// hold that still exists is restocked, so a release racing an expiry can't return the stock twice
 	@Transactional
-	public void handleProductCreated(String sku, Integer quantity) {
-		log.info("Handling product created event for SKU: {} with quantity: {}", sku, quantity);
-		Optional<Inventory> existingInventory = inventoryRepository.findBySkuCode(sku);
-		
-		if (existingInventory.isPresent()) {
-			log.warn("Inventory already exists for SKU: {}. Updating quantity.", sku);
-			Inventory inventory = existingInventory.get();
-			inventory.setQuantity(quantity);
-			inventoryRepository.save(inventory);
-		} else {
-			Inventory inventory = Inventory.builder()
-					.skuCode(sku)
-					.quantity(quantity != null ? quantity : 0)
-					.build();
-			inventoryRepository.save(inventory);
-			log.info("Inventory created for new product with SKU: {}", sku);
+	public ReservationResponse releaseInventory(ReservationRequest request) {
+		if (request.getReservationId() != null) {
+			return settleReservation(request.getReservationId(), true)
+					.orElseGet(() -> ReservationResponse.builder().reservationId(request.getReservationId()).items(List.of()).build());
 		}
+
+		Map<String, Integer> quantities = mergeBySkuCode(request.getItems());
+		log.info("Releasing inventory for SKU codes: {}", quantities.keySet());
+		restock(quantities);
+		return ReservationResponse.builder()
+				.items(toReservationItems(quantities))
+				.build();
+	}
+
+	// The order was placed: the stock stays taken and the hold is simply dropped
+	@Transactional
+	public ReservationResponse confirmReservation(String reservationId) {
+		return settleReservation(reservationId, false)
+				.orElseThrow(() -> new InventoryNotFoundException("Reservation not found: " + reservationId));
 	}
 
+	// Called by the expiry timer; a hold that was settled or extended in the meantime is left alone
 	@Transactional
-	public void handleProductUpdated(String sku, Integer quantity) {
-		log.info("Handling product updated event for SKU: {} with quantity: {}", sku, quantity);
-		Optional<Inventory> existingInventory = inventoryRepository.findBySkuCode(sku);
-		
-		if (existingInventory.isPresent()) {
-			Inventory inventory = existingInventory.get();
-			inventory.setQuantity(quantity != null ? quantity : inventory.getQuantity());
-			inventoryRepository.save(inventory);
-			log.info("Inventory updated for SKU: {}", sku);
-		} else {
-			log.warn("Inventory not found for SKU: {}. Creating new inventory.", sku);
-			Inventory inventory = Inventory.builder()
-					.skuCode(sku)
-					.quantity(quantity != null ? quantity : 0)
-					.build();
-			inventoryRepository.save(inventory);
+	public boolean expireReservation(String reservationId) {
+		Optional<Reservation> reservation = reservationRepository.lockByReservationId(reservationId);
+		if (reservation.isEmpty() || reservation.get().getExpiresAt().isAfter(Instant.now())) {
+			return false;
 		}
+		log.info("Reservation {} expired, releasing its stock", reservationId);
+		settle(reservation.get(), true);
+		return true;
 	}
 
+	// Batch form of the product event handlers: each SKU's events are folded into the changes they amount to when
+	// applied in order, and the results are written with one batch of deletes and one of upserts in a single
+	// transaction. A SKU whose events can't be folded without its stored version has what was folded so far written
+	// first, all SKUs at once; that only happens when versioned and unversioned events for it share a batch
 	@Transactional
-	public void handleProductDeleted(String sku) {
-		log.info("Handling product deleted event for SKU: {}", sku);
-		Optional<Inventory> existingInventory = inventoryRepository.findBySkuCode(sku);
-		
-		if (existingInventory.isPresent()) {
-			inventoryRepository.delete(existingInventory.get());
-			log.info("Inventory deleted for SKU: {}", sku);
-		} else {
-			log.warn("Inventory not found for SKU: {}. Nothing to delete.", sku);
+	public void applyProductEvents(List<ProductEvent> productEvents) {
+		// SKU order keeps row locks ordered across concurrent batches
+		Map<String, MergedProductEvent> mergedBySku = new TreeMap<>();
+		Map<String, Integer> ledgerTargets = new TreeMap<>();
+		for (ProductEvent productEvent : productEvents) {
+			if (productEvent.getSku() == null) {
+				log.warn("Skipping product event {} without SKU", productEvent.getEventType());
+				continue;
+			}
+			if (!List.of("CREATED", "UPDATED", "DELETED").contains(productEvent.getEventType())) {
+				log.warn("Unknown event type: {} for SKU: {}", productEvent.getEventType(), productEvent.getSku());
+				continue;
+			}
+			MergedProductEvent merged = mergedBySku.get(productEvent.getSku());
+			MergedProductEvent next = merged == null ? MergedProductEvent.of(productEvent) : merged.then(productEvent);
+			if (next == null) {
+				writeProductEvents(mergedBySku, ledgerTargets);
+				mergedBySku = new TreeMap<>();
+				next = MergedProductEvent.of(productEvent);
+			}
+			mergedBySku.put(productEvent.getSku(), next);
+		}
+		writeProductEvents(mergedBySku, ledgerTargets);
+		stockLedger.recordTargetsAfterCommit(ledgerTargets);
+		log.info("Applied {} product events", productEvents.size());
+	}
+
+	// Ledger targets are recorded once the whole batch commits; a later write of the same SKU supersedes its target
+	private void writeProductEvents(Map<String, MergedProductEvent> mergedBySku, Map<String, Integer> batchLedgerTargets) {
+		if (mergedBySku.isEmpty()) {
+			return;
+		}
+		List<InventoryChange> upserts = new ArrayList<>();
+		List<InventoryChange> deletes = new ArrayList<>();
+		mergedBySku.forEach((sku, merged) -> {
+			deletes.addAll(merged.deletes(sku));
+			upserts.addAll(merged.upserts(sku));
+		});
+		Set<String> deleteSkus = deletes.stream().map(InventoryChange::skuCode).collect(Collectors.toCollection(TreeSet::new));
+
+		// With the stock ledger on, a new quantity for an existing SKU is recorded in it like a restock once this
+		// commits; only the version is written here. Hot SKUs, new SKUs, stale versions and SKUs deleted in this write
+		// take the row path
+		Map<String, Integer> ledgerTargets = stockLedger.isEnabled()
+				? ledgerTargets(upserts.stream().filter(change -> !deleteSkus.contains(change.skuCode())).toList())
+				: Map.of();
+		List<InventoryChange> rowUpserts = upserts.stream()
+				.map(change -> ledgerTargets.containsKey(change.skuCode())
+						? new InventoryChange(change.skuCode(), null, change.version()) : change)
+				.toList();
+		List<String> rowQuantities = rowUpserts.stream()
+				.filter(change -> change.quantity() != null)
+				.map(InventoryChange::skuCode)
+				.toList();
+
+		List<String> superseded = Stream.concat(rowQuantities.stream(), deleteSkus.stream()).distinct().toList();
+		stockLedger.discard(superseded);
+		batchLedgerTargets.keySet().removeAll(superseded);
+		batchLedgerTargets.putAll(ledgerTargets);
+		// Buckets before rows, as everywhere else; they are emptied once the rows are written
+		hotSkuStockService.lockBuckets(superseded);
+		// Deletes first: a SKU deleted and created again within the batch is written as a fresh row.
+		// Deleted events only go out for rows that were there
+		List<String> deleted = inventoryBatchRepository.delete(deletes);
+		inventoryBatchRepository.upsert(rowUpserts);
+		hotSkuStockService.clearBuckets(rowQuantities);
+		deleted.forEach(hotSkuStockService::deleteBuckets);
+		deleted.forEach(sku -> eventPublisher.publishEvent(toChangedEvent(sku, 0, true)));
+		// Ledger-bound SKUs are published by the flush that applies them
+		publishChanges(rowUpserts.stream()
+				.filter(change -> !ledgerTargets.containsKey(change.skuCode()))
+				.collect(Collectors.toMap(InventoryChange::skuCode, change -> 0, (first, second) -> first)));
+		log.info("Wrote product events as {} upserts and {} deletes",
+				rowUpserts.stream().map(InventoryChange::skuCode).distinct().count(), deleted.size());
+	}
+
+	// One batch of a bulk import: absolute quantities, so pending ledger deltas and hot buckets are superseded
+	@Transactional
+	public void importInventory(List<InventoryChange> changes) {
+		// Rows are locked in SKU order, as product event batches do; the sort is stable, so a repeated SKU still
+		// ends at its last value
+		List<InventoryChange> sorted = new ArrayList<>(changes);
+		sorted.sort(Comparator.comparing(InventoryChange::skuCode));
+		List<String> skuCodes = sorted.stream().map(InventoryChange::skuCode).distinct().toList();
+		stockLedger.discard(skuCodes);
+		// Every row here is written, so the buckets are emptied first, keeping the buckets-then-row lock order
+		hotSkuStockService.clearBuckets(skuCodes);
+		inventoryBatchRepository.upsert(sorted);
+		changes.forEach(change -> eventPublisher.publishEvent(toChangedEvent(change.skuCode(), change.quantity(), false)));
+	}
+
+	// SKUs whose new quantity can go through the stock ledger: the row exists, isn't in hot mode and holds an older
+	// product version, so the upsert would have applied the quantity
+	private Map<String, Integer> ledgerTargets(List<InventoryChange> upserts) {
+		Map<String, InventoryChange> withQuantity = upserts.stream()
+				.filter(change -> change.quantity() != null)
+				.collect(Collectors.toMap(InventoryChange::skuCode, change -> change));
+		if (withQuantity.isEmpty()) {
+			return Map.of();
+		}
+		Map<String, Integer> targets = new TreeMap<>();
+		inventoryRepository.findStockBySkuCodeIn(withQuantity.keySet()).forEach(stock -> {
+			InventoryChange change = withQuantity.get(stock.skuCode());
+			if (stock.buckets() == null && (change.version() == null || stock.productVersion() == null
+					|| stock.productVersion() < change.version())) {
+				targets.put(stock.skuCode(), change.quantity());
+			}
+		});
+		return targets;
+	}
+
+	private Optional<ReservationResponse> settleReservation(String reservationId, boolean restock) {
+		Optional<Reservation> reservation = reservationRepository.lockByReservationId(reservationId);
+		if (reservation.isEmpty()) {
+			log.warn("Reservation {} not found, it was already settled or has expired", reservationId);
+			return Optional.empty();
+		}
+		ReservationResponse response = toReservationResponse(reservation.get());
+		settle(reservation.get(), restock);
+		return Optional.of(response);
+	}
+
+	private void settle(Reservation reservation, boolean restock) {
+		if (restock) {
+			Map<String, Integer> quantities = new TreeMap<>();
+			reservation.getItems().forEach(line -> quantities.merge(line.getSkuCode(), line.getQuantity(), Integer::sum));
+			restock(quantities);
+		}
+		reservationRepository.delete(reservation);
+		eventPublisher.publishEvent(new ReservationSettledEvent(reservation.getReservationId()));
+	}
+
+	private void restock(Map<String, Integer> quantities) {
+		for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+			if (hotSkuStockService.isHot(entry.getKey())) {
+				hotSkuStockService.put(entry.getKey(), entry.getValue());
+			} else if (inventoryRepository.releaseStock(entry.getKey(), entry.getValue()) == 0) {
+				log.warn("Inventory not found for SKU: {}. Nothing to release.", entry.getKey());
+			}
+		}
+		publishChanges(quantities);
+	}
+
+	// SKUs SkuFilter rules out never reach the cache or the database
+	private Map<String, Integer> storedQuantities(List<String> skuCodes) {
+		List<String> known = skuCodes.stream().distinct().filter(skuFilter::mightContain).toList();
+		if (known.isEmpty()) {
+			return Map.of();
+		}
+		Map<String, Integer> quantities = stockCache.getAll(known);
+		skuFilter.recordFalsePositives(known.size() - quantities.size());
+		return quantities;
+	}
+
+	private Inventory saveAndPublish(Inventory inventory) {
+		Inventory savedInventory = inventoryRepository.save(inventory);
+		eventPublisher.publishEvent(toChangedEvent(savedInventory.getSkuCode(), savedInventory.getQuantity(), false));
+		return savedInventory;
+	}
+
+	private void deleteAndPublish(Inventory inventory) {
+		hotSkuStockService.deleteBuckets(inventory.getSkuCode());
+		inventoryRepository.delete(inventory);
+		eventPublisher.publishEvent(toChangedEvent(inventory.getSkuCode(), 0, true));
+	}
+
+	// Bulk updates don't return the new quantities, so re-read the rows this transaction already holds locked
+	private List<InventoryResponse> publishChanges(Map<String, Integer> quantities) {
+		List<Inventory> inventories = inventoryRepository.findBySkuCodeIn(new ArrayList<>(quantities.keySet()));
+		Map<String, Integer> bucketTotals = bucketTotals(inventories);
+		List<InventoryResponse> responses = inventories.stream()
+				.map(inventory -> mapToResponse(inventory, bucketTotals))
+				.toList();
+		responses.forEach(response -> eventPublisher.publishEvent(toChangedEvent(response.getSkuCode(), response.getQuantity(), false)));
+		return responses;
+	}
+
+	// A SKU that turned hot on another instance fails the row decrement (its row only holds the remainder), so
+	// that failure re-checks hot mode before reporting insufficient stock
+	private boolean takeStock(String skuCode, int quantity) {
+		if (hotSkuStockService.isHot(skuCode)) {
+			return hotSkuStockService.take(skuCode, quantity);
+		}
+		if (inventoryRepository.reserveStock(skuCode, quantity) > 0) {
+			return true;
+		}
+		return hotSkuStockService.recheck(skuCode) && hotSkuStockService.take(skuCode, quantity);
+	}
+
+	private Map<String, Integer> bucketTotals(List<Inventory> inventories) {
+		return hotSkuStockService.bucketTotals(inventories.stream()
+				.filter(inventory -> inventory.getBuckets() != null)
+				.map(Inventory::getSkuCode)
+				.toList());
+	}
+
+	private InventoryChangedEvent toChangedEvent(String skuCode, Integer quantity, boolean deleted) {
+		return InventoryChangedEvent.builder()
+				.skuCode(skuCode)
+				.quantity(quantity)
+				.deleted(deleted)
+				.changedAt(System.currentTimeMillis())
+				.build();
+	}
+
+	private Map<String, Integer> mergeBySkuCode(List<ReservationItem> items) {
+		Map<String, Integer> quantities = new TreeMap<>();
+		items.forEach(item -> quantities.merge(item.getSkuCode(), item.getQuantity(), Integer::sum));
+		return quantities;
+	}
+
+	private ReservationResponse toReservationResponse(Reservation reservation) {
+		return ReservationResponse.builder()
+				.reservationId(reservation.getReservationId())
+				.expiresAt(reservation.getExpiresAt())
+				.items(reservation.getItems().stream()
+						.map(line -> new ReservationItem(line.getSkuCode(), line.getQuantity()))
+						.toList())
+				.build();
+	}
+
+	private List<ReservationItem> toReservationItems(Map<String, Integer> quantities) {
+		return quantities.entrySet().stream()
+				.map(entry -> new ReservationItem(entry.getKey(), entry.getValue()))
+				.toList();
+	}
+
+	private String encodeCursor(String skuCode) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(skuCode.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String decodeCursor(String cursor) {
+		try {
+			return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor);
 		}
 	}
 
 	private InventoryResponse mapToResponse(Inventory inventory) {
+		return mapToResponse(inventory, bucketTotals(List.of(inventory)));
+	}
+
+	private InventoryResponse mapToResponse(Inventory inventory, Map<String, Integer> bucketTotals) {
+		return mapToResponse(inventory.getSkuCode(), inventory.getQuantity() + bucketTotals.getOrDefault(inventory.getSkuCode(), 0));
+	}
+
+	private InventoryResponse mapToResponse(String skuCode, int storedQuantity) {
+		// Pending ledger deltas are clamped the same way the flush will clamp them
+		int quantity = (int) Math.max(0, storedQuantity + stockLedger.pendingDelta(skuCode));
 		return InventoryResponse.builder()
-				.skuCode(inventory.getSkuCode())
-				.quantity(inventory.getQuantity())
-				.isInStock(inventory.getQuantity() > 0)
+				.skuCode(skuCode)
+				.quantity(quantity)
+				.isInStock(quantity > 0)
 				.build();
 	}
 }
@@ -0,0 +1,196 @@
+package com.ecommerce.inventoryservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Append-only journal of stock ledger entries, one line per entry: seq, type, delta, SKU. It is split into
+// segments named after their first sequence, so a segment whose successor starts at or below the applied watermark
+// holds nothing that still needs replaying. StockLedger serializes everything but sync, which any thread may call
+// once it has appended; concurrent syncs share one force, so appenders commit as a group
+@Slf4j
+class LedgerJournal {
+
+	static final char ADJUST = 'A';
+	static final char DISCARD = 'X';
+	// Replaces a SKU's pending delta; restates what a flush left behind when it moved the watermark past it
+	static final char CARRY = 'C';
+
+	private final Path directory;
+	private final String journalId;
+	private final long segmentBytes;
+	private final boolean fsync;
+	private final Object syncLock = new Object();
+	private volatile FileChannel segment;
+	private volatile long writtenSeq;
+	private volatile long syncedSeq;
+
+	LedgerJournal(Path directory, String journalId, long segmentBytes, boolean fsync) {
+		this.directory = directory;
+		this.journalId = journalId;
+		this.segmentBytes = segmentBytes;
+		this.fsync = fsync;
+	}
+
+	// Replays every entry after the given sequence and returns the last sequence found. Only lines ending in a
+	// newline count: a torn last line from a crash mid-append was never acknowledged and is skipped, even when what
+	// survived of it would parse, such as a SKU cut short
+	long replay(long afterSeq, Consumer<Entry> consumer) {
+		long lastSeq = afterSeq;
+		for (Path path : segments()) {
+			try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+				ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+				int b;
+				while ((b = in.read()) != -1) {
+					if (b != '\n') {
+						line.write(b);
+						continue;
+					}
+					Entry entry = parse(line.toString(StandardCharsets.UTF_8));
+					if (entry == null) {
+						log.warn("Skipping unreadable stock ledger entry in {}: {}", path.getFileName(), line.toString(StandardCharsets.UTF_8));
+					} else {
+						lastSeq = Math.max(lastSeq, entry.seq());
+						if (entry.seq() > afterSeq) {
+							consumer.accept(entry);
+						}
+					}
+					line.reset();
+				}
+				if (line.size() > 0) {
+					log.warn("Skipping torn stock ledger entry at the end of {}: {}", path.getFileName(),
+							line.toString(StandardCharsets.UTF_8));
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException("Unable to replay stock ledger segment " + path, e);
+			}
+		}
+		return lastSeq;
+	}
+
+	void append(Entry entry) {
+		try {
+			if (segment == null || segment.size() >= segmentBytes) {
+				roll(entry.seq());
+			}
+			String line = entry.seq() + "," + entry.type() + "," + entry.delta() + "," + entry.skuCode() + "\n";
+			ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+			while (buffer.hasRemaining()) {
+				segment.write(buffer);
+			}
+			writtenSeq = entry.seq();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to append to stock ledger " + journalId, e);
+		}
+	}
+
+	// Returns once the entry with the given sequence is on disk. Whoever forces covers every entry written so far,
+	// so callers that queued up behind it usually find their entry already synced. Sequences this instance didn't
+	// write came from the replayed segments and are on disk already
+	void sync(long seq) {
+		if (!fsync || syncedSeq >= seq) {
+			return;
+		}
+		synchronized (syncLock) {
+			if (syncedSeq >= seq) {
+				return;
+			}
+			long upToSeq = writtenSeq;
+			if (segment != null) {
+				try {
+					segment.force(false);
+				} catch (IOException e) {
+					throw new UncheckedIOException("Unable to sync stock ledger " + journalId, e);
+				}
+			}
+			syncedSeq = Math.max(upToSeq, seq);
+		}
+	}
+
+	// Deletes fully applied segments beyond the newest retainedSegments, which are kept as an audit trail
+	void prune(long appliedSeq, int retainedSegments) {
+		List<Path> segments = segments();
+		for (int i = 0; i < segments.size() - Math.max(retainedSegments, 1); i++) {
+			if (firstSeq(segments.get(i + 1)) > appliedSeq + 1) {
+				break;
+			}
+			try {
+				Files.deleteIfExists(segments.get(i));
+			} catch (IOException e) {
+				log.warn("Unable to delete stock ledger segment {}", segments.get(i), e);
+			}
+		}
+	}
+
+	void close() {
+		if (segment != null) {
+			try {
+				segment.close();
+			} catch (IOException e) {
+				log.warn("Unable to close stock ledger {}", journalId, e);
+			}
+		}
+	}
+
+	// The outgoing segment is forced before it is closed, so a sync waiting on one of its entries never needs it again
+	private void roll(long firstSeq) throws IOException {
+		synchronized (syncLock) {
+			if (segment != null && fsync) {
+				segment.force(false);
+				syncedSeq = writtenSeq;
+			}
+			close();
+		}
+		Files.createDirectories(directory);
+		segment = FileChannel.open(directory.resolve(String.format("%s-%020d.log", journalId, firstSeq)),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	private List<Path> segments() {
+		if (!Files.isDirectory(directory)) {
+			return List.of();
+		}
+		try (Stream<Path> files = Files.list(directory)) {
+			return files
+					.filter(path -> path.getFileName().toString().matches(Pattern.quote(journalId) + "-\\d{20}\\.log"))
+					.sorted()
+					.toList();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to list stock ledger segments in " + directory, e);
+		}
+	}
+
+	private long firstSeq(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(journalId.length() + 1, name.length() - ".log".length()));
+	}
+
+	private Entry parse(String line) {
+		String[] fields = line.split(",", 4);
+		if (fields.length < 4 || fields[1].length() != 1 || fields[3].isEmpty()) {
+			return null;
+		}
+		try {
+			return new Entry(Long.parseLong(fields[0]), fields[1].charAt(0), Long.parseLong(fields[2]), fields[3]);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	record Entry(long seq, char type, long delta, String skuCode) {
+	}
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.events.ProductEvent;
+import com.ecommerce.inventoryservice.repository.InventoryChange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// A SKU's product events folded in partition order, to be written as what applying them one by one leaves behind:
+// the last delete, if any, then an upsert folded from the events after it. Only the last delete matters, since the
+// events before it are undone by it or, when its version is stale, were not newer than the stored row either.
+// An update that leaves stock alone doesn't wipe an earlier quantity in the same batch, but a quantity keeps the
+// version of the event that set it: against a stored version in between, applying the events one by one would
+// have skipped it and kept the stored quantity, or the last unversioned one given before it. A delete known to
+// apply, because an unversioned one came before it, is written unversioned
+record MergedProductEvent(boolean deleted, Long deletedVersion, boolean upserted, Integer unversionedQuantity,
+		Integer quantity, Long quantityVersion, Long version, Long latestVersion) {
+
+	static MergedProductEvent of(ProductEvent productEvent) {
+		MergedProductEvent empty = new MergedProductEvent(false, null, false, null, null, null, null, null);
+		return empty.then(productEvent);
+	}
+
+	// An event not newer than what was folded so far would be skipped by the product_version check, so it is here
+	// too. An unversioned delete always applies, so nothing folded before it guards what follows. Returns null for a
+	// versioned delete after an unversioned quantity: whether that quantity survives depends on the stored version,
+	// so the events folded so far have to be written first
+	MergedProductEvent then(ProductEvent next) {
+		Long nextVersion = next.getVersion();
+		if (latestVersion != null && nextVersion != null && nextVersion <= latestVersion) {
+			return this;
+		}
+		Long latest = nextVersion != null ? nextVersion : latestVersion;
+		if ("DELETED".equals(next.getEventType())) {
+			boolean applies = nextVersion == null || deleted && deletedVersion == null;
+			if (!applies && unversionedQuantity != null) {
+				return null;
+			}
+			return new MergedProductEvent(true, applies ? null : nextVersion, false, null, null, null, null,
+					nextVersion != null ? latest : null);
+		}
+		Long upsertVersion = nextVersion != null ? nextVersion : version;
+		if (next.getQuantity() != null && nextVersion == null) {
+			return new MergedProductEvent(deleted, deletedVersion, true, next.getQuantity(), null, null, upsertVersion, latest);
+		}
+		if (next.getQuantity() != null) {
+			return new MergedProductEvent(deleted, deletedVersion, true, unversionedQuantity, next.getQuantity(), nextVersion,
+					upsertVersion, latest);
+		}
+		return new MergedProductEvent(deleted, deletedVersion, true, unversionedQuantity, quantity, quantityVersion,
+				upsertVersion, latest);
+	}
+
+	List<InventoryChange> deletes(String skuCode) {
+		return deleted ? List.of(new InventoryChange(skuCode, null, deletedVersion)) : List.of();
+	}
+
+	// Each quantity goes in under the version of the event that set it, followed by a version-only change if the
+	// latest version is newer; the repository writes quantities before versions
+	List<InventoryChange> upserts(String skuCode) {
+		if (!upserted) {
+			return List.of();
+		}
+		List<InventoryChange> changes = new ArrayList<>();
+		if (unversionedQuantity != null) {
+			changes.add(new InventoryChange(skuCode, unversionedQuantity, null));
+		}
+		if (quantity != null) {
+			changes.add(new InventoryChange(skuCode, quantity, quantityVersion));
+		}
+		if (changes.isEmpty() || version != null && !(quantity != null && Objects.equals(quantityVersion, version))) {
+			changes.add(new InventoryChange(skuCode, null, version));
+		}
+		return changes;
+	}
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.dto.ReservationHeldEvent;
+import com.ecommerce.inventoryservice.dto.ReservationSettledEvent;
+import com.ecommerce.inventoryservice.repository.ReservationExpiry;
+import com.ecommerce.inventoryservice.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Expires unconfirmed reservations from an in-memory timing wheel instead of scanning t_inventory_reservation.
+// Holds enter the wheel once their transaction commits and leave it when settled; on startup the wheel is rebuilt
+// from the expiry index. A slow sweep over the due prefix of that index picks up holds whose instance died
+@Service
+@Slf4j
+public class ReservationExpiryService {
+
+	private final InventoryService inventoryService;
+	private final ReservationRepository reservationRepository;
+	private final TimingWheel<String> wheel;
+	private final Map<String, TimingWheel.Timeout<String>> timeouts = new HashMap<>();
+	private final Counter expired;
+
+	@Value("${inventory.reservation.rebuild-page-size:10000}")
+	private int rebuildPageSize;
+
+	@Value("${inventory.reservation.sweep-batch-size:500}")
+	private int sweepBatchSize;
+
+	@Value("${inventory.reservation.sweep-grace:1m}")
+	private Duration sweepGrace;
+
+	public ReservationExpiryService(InventoryService inventoryService,
+									ReservationRepository reservationRepository,
+									MeterRegistry meterRegistry,
+									@Value("${inventory.reservation.tick-ms:1000}") long tickMillis) {
+		this.inventoryService = inventoryService;
+		this.reservationRepository = reservationRepository;
+		this.wheel = new TimingWheel<>(tickMillis, System.currentTimeMillis());
+		this.expired = Counter.builder("inventory.reservation.expired")
+				.description("Reservations released because they were not confirmed in time")
+				.register(meterRegistry);
+		Gauge.builder("inventory.reservation.tracked", this, ReservationExpiryService::tracked)
+				.description("Reservations with a pending expiry timer on this instance")
+				.register(meterRegistry);
+	}
+
+	@TransactionalEventListener
+	public void onHeld(ReservationHeldEvent event) {
+		track(event.reservationId(), event.expiresAt());
+	}
+
+	@TransactionalEventListener
+	public void onSettled(ReservationSettledEvent event) {
+		synchronized (wheel) {
+			TimingWheel.Timeout<String> timeout = timeouts.remove(event.reservationId());
+			if (timeout != null) {
+				wheel.cancel(timeout);
+			}
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		long afterId = 0;
+		int tracked = 0;
+		List<ReservationExpiry> page;
+		do {
+			page = reservationRepository.findExpiriesAfter(afterId, PageRequest.of(0, rebuildPageSize));
+			for (ReservationExpiry expiry : page) {
+				track(expiry.reservationId(), expiry.expiresAt());
+				afterId = expiry.id();
+			}
+			tracked += page.size();
+		} while (page.size() == rebuildPageSize);
+		log.info("Rebuilt reservation expiry wheel with {} outstanding reservations", tracked);
+	}
+
+	@Scheduled(fixedDelayString = "${inventory.reservation.tick-ms:1000}")
+	public void tick() {
+		List<String> due;
+		synchronized (wheel) {
+			due = wheel.advanceTo(System.currentTimeMillis());
+			due.forEach(timeouts::remove);
+		}
+		due.forEach(this::expire);
+	}
+
+	@Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:300000}")
+	public void sweep() {
+		List<String> due = reservationRepository.findDueReservationIds(Instant.now().minus(sweepGrace),
+				PageRequest.of(0, sweepBatchSize));
+		if (!due.isEmpty()) {
+			log.warn("Expiring {} overdue reservations missed by the timing wheel", due.size());
+			due.forEach(this::expire);
+		}
+	}
+
+	private void track(String reservationId, Instant expiresAt) {
+		synchronized (wheel) {
+			timeouts.computeIfAbsent(reservationId, id -> wheel.schedule(id, expiresAt.toEpochMilli()));
+		}
+	}
+
+	private void expire(String reservationId) {
+		try {
+			if (inventoryService.expireReservation(reservationId)) {
+				expired.increment();
+			}
+		} catch (RuntimeException e) {
+			log.error("Failed to expire reservation {}", reservationId, e);
+		}
+	}
+
+	private int tracked() {
+		synchronized (wheel) {
+			return wheel.size();
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.dto.InventoryChangedEvent;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+// Cuckoo filter of every SKU in t_inventory, so lookups for SKUs that don't exist are answered without a query.
+// Built from a streaming scan at startup and rebuilt periodically. Creations are added as they commit here and as
+// they arrive from peers on inventory-changes. Deletions are never removed incrementally: a fingerprint can be
+// shared by two SKUs, so a removal could turn an existing SKU into a false "unknown". Deleted SKUs stay "maybe"
+// and cost a database lookup until the next rebuild drops them. Lookups read the filter optimistically, so the
+// read path takes no lock unless an add or a rebuild is writing at that moment
+@Service
+@Slf4j
+public class SkuFilter {
+
+	private final InventoryRepository inventoryRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final Counter definiteMisses;
+	private final Counter falsePositives;
+	private final StampedLock lock = new StampedLock();
+	private volatile CuckooFilter filter;
+	private List<String> addedDuringRebuild;
+
+	@Value("${inventory.sku-filter.enabled:true}")
+	private boolean enabled;
+
+	@Value("${inventory.sku-filter.headroom:1.5}")
+	private double headroom;
+
+	@Value("${inventory.sku-filter.min-capacity:100000}")
+	private long minCapacity;
+
+	public SkuFilter(InventoryRepository inventoryRepository,
+					 TransactionTemplate transactionTemplate,
+					 MeterRegistry meterRegistry) {
+		this.inventoryRepository = inventoryRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.definiteMisses = Counter.builder("inventory.sku_filter.definite_misses")
+				.description("SKU lookups answered as unknown without touching the database")
+				.register(meterRegistry);
+		this.falsePositives = Counter.builder("inventory.sku_filter.false_positives")
+				.description("SKU lookups the filter let through that the database didn't know either")
+				.register(meterRegistry);
+		gauge(meterRegistry, "inventory.sku_filter.skus", "SKUs in the filter", CuckooFilter::count);
+		gauge(meterRegistry, "inventory.sku_filter.memory", "Size of the filter table in bytes", CuckooFilter::memoryBytes);
+		gauge(meterRegistry, "inventory.sku_filter.expected_fpp", "Expected false-positive rate at the current load",
+				CuckooFilter::expectedFalsePositiveRate);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${inventory.sku-filter.rebuild-interval-ms:3600000}",
+			initialDelayString = "${inventory.sku-filter.rebuild-interval-ms:3600000}")
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		long capacity = Math.max(minCapacity, (long) (inventoryRepository.count() * headroom));
+		long stamp = lock.writeLock();
+		try {
+			addedDuringRebuild = new ArrayList<>();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+		CuckooFilter rebuilt = new CuckooFilter(capacity);
+		transactionTemplate.executeWithoutResult(status -> {
+			try (Stream<String> skuCodes = inventoryRepository.streamSkuCodes()) {
+				skuCodes.forEach(rebuilt::add);
+			}
+		});
+
+		// Creations that committed during the scan may have been missed by it
+		stamp = lock.writeLock();
+		try {
+			addedDuringRebuild.forEach(skuCode -> addIfAbsent(rebuilt, skuCode));
+			addedDuringRebuild = null;
+			filter = rebuilt;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+		if (rebuilt.isFull()) {
+			log.warn("SKU filter sized for {} SKUs overflowed, lookups go to the database until the next rebuild", capacity);
+		}
+		log.info("Built SKU filter with {} SKUs in {} bytes, expected false-positive rate {}",
+				rebuilt.count(), rebuilt.memoryBytes(), String.format("%.5f", rebuilt.expectedFalsePositiveRate()));
+	}
+
+	// False only for SKUs that certainly don't exist; everything is a "maybe" until the first build
+	public boolean mightContain(String skuCode) {
+		if (read(current -> current == null || current.mightContain(skuCode))) {
+			return true;
+		}
+		definiteMisses.increment();
+		return false;
+	}
+
+	public void recordFalsePositives(int count) {
+		falsePositives.increment(count);
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onLocalChange(InventoryChangedEvent event) {
+		if (!event.isDeleted()) {
+			add(event.getSkuCode());
+		}
+	}
+
+	public void apply(InventoryChangedEvent event) {
+		if (!event.isDeleted()) {
+			add(event.getSkuCode());
+		}
+	}
+
+	private void add(String skuCode) {
+		long stamp = lock.writeLock();
+		try {
+			if (addedDuringRebuild != null) {
+				addedDuringRebuild.add(skuCode);
+			}
+			if (filter != null) {
+				addIfAbsent(filter, skuCode);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	// Nothing is removed, so a SKU the filter already answers "maybe" for needs no second copy
+	private static void addIfAbsent(CuckooFilter target, String skuCode) {
+		if (!target.mightContain(skuCode)) {
+			target.add(skuCode);
+		}
+	}
+
+	private void gauge(MeterRegistry meterRegistry, String name, String description, ToDoubleFunction<CuckooFilter> value) {
+		Gauge.builder(name, this, skuFilter -> skuFilter.read(current -> current == null ? 0 : value.applyAsDouble(current)))
+				.description(description)
+				.register(meterRegistry);
+	}
+
+	// An add can move fingerprints around mid-read; if one ran meanwhile the read is repeated under the read lock
+	private <R> R read(Function<CuckooFilter, R> value) {
+		long stamp = lock.tryOptimisticRead();
+		R result = value.apply(filter);
+		if (lock.validate(stamp)) {
+			return result;
+		}
+		stamp = lock.readLock();
+		try {
+			return value.apply(filter);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+}
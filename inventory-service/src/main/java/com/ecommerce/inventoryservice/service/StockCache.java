@@ -0,0 +1,94 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.dto.InventoryChangedEvent;
+import com.ecommerce.inventoryservice.model.Inventory;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Read-through cache of stored stock (row plus hot-SKU buckets) for availability checks, bounded by size with
+// Caffeine's W-TinyLFU eviction. SKUs that don't exist are cached as absent too. Every stock change publishes an
+// InventoryChangedEvent: this instance drops the SKU once the change commits, peers when it arrives on
+// inventory-changes. A load racing a commit can still put the old value back, so entries also expire after a while
+@Service
+public class StockCache {
+
+	private final InventoryRepository inventoryRepository;
+	private final HotSkuStockService hotSkuStockService;
+	private final Cache<String, Stock> cache;
+
+	public StockCache(InventoryRepository inventoryRepository,
+					  HotSkuStockService hotSkuStockService,
+					  MeterRegistry meterRegistry,
+					  @Value("${inventory.stock-cache.maximum-size:100000}") long maximumSize,
+					  @Value("${inventory.stock-cache.expire-after-write:30s}") Duration expireAfterWrite) {
+		this.inventoryRepository = inventoryRepository;
+		this.hotSkuStockService = hotSkuStockService;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfterWrite(expireAfterWrite)
+				.recordStats()
+				.build();
+		// cache.gets (hit/miss), cache.evictions, cache.load.duration and cache.size, tagged cache=inventory.stock
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "inventory.stock");
+		Gauge.builder("inventory.stock_cache.hit_ratio", cache, stockCache -> stockCache.stats().hitRate())
+				.description("Share of availability lookups answered from the stock cache")
+				.register(meterRegistry);
+	}
+
+	// Stored quantity of each requested SKU that exists, in request order
+	public Map<String, Integer> getAll(Collection<String> skuCodes) {
+		Map<String, Stock> stocks = cache.getAll(skuCodes, this::load);
+		Map<String, Integer> quantities = new LinkedHashMap<>();
+		for (String skuCode : skuCodes) {
+			Stock stock = stocks.get(skuCode);
+			if (stock != null && stock.exists()) {
+				quantities.put(skuCode, stock.quantity());
+			}
+		}
+		return quantities;
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onLocalChange(InventoryChangedEvent event) {
+		invalidate(event.getSkuCode());
+	}
+
+	public void invalidate(String skuCode) {
+		cache.invalidate(skuCode);
+	}
+
+	private Map<String, Stock> load(Set<? extends String> skuCodes) {
+		List<Inventory> inventories = inventoryRepository.findBySkuCodeIn(new ArrayList<>(skuCodes));
+		Map<String, Integer> bucketTotals = hotSkuStockService.bucketTotals(inventories.stream()
+				.filter(inventory -> inventory.getBuckets() != null)
+				.map(Inventory::getSkuCode)
+				.toList());
+		Map<String, Stock> stocks = new HashMap<>();
+		skuCodes.forEach(skuCode -> stocks.put(skuCode, Stock.ABSENT));
+		inventories.forEach(inventory -> stocks.put(inventory.getSkuCode(), new Stock(true,
+				inventory.getQuantity() + bucketTotals.getOrDefault(inventory.getSkuCode(), 0))));
+		return stocks;
+	}
+
+	private record Stock(boolean exists, int quantity) {
+
+		static final Stock ABSENT = new Stock(false, 0);
+	}
+}
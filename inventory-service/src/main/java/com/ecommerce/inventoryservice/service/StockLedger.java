@@ -0,0 +1,332 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.dto.InventoryChangedEvent;
+import com.ecommerce.inventoryservice.model.Inventory;
+import com.ecommerce.inventoryservice.model.LedgerWatermark;
+import com.ecommerce.inventoryservice.repository.InventoryBatchRepository;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.ecommerce.inventoryservice.repository.LedgerWatermarkRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Opt-in write-behind path for restocks and product-driven adjustments. Each change is appended to a local journal
+// and summed into a per-SKU delta; a flush writes the net deltas as one JDBC batch and moves this journal's applied
+// watermark in the same transaction, so replaying the journal after a crash applies every entry exactly once.
+// Readers add the pending deltas to what they read. Decrements still go straight to the row and don't see pending
+// restocks until they are flushed
+@Service
+@Slf4j
+public class StockLedger {
+
+	private final InventoryBatchRepository inventoryBatchRepository;
+	private final InventoryRepository inventoryRepository;
+	private final LedgerWatermarkRepository ledgerWatermarkRepository;
+	private final HotSkuStockService hotSkuStockService;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionTemplate transactionTemplate;
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private final AtomicBoolean flushRequested = new AtomicBoolean();
+	private final Timer flushTimer;
+	private final boolean enabled;
+	private final String journalId;
+	private final LedgerJournal journal;
+	private ExecutorService flusher;
+	private Map<String, Long> pending = new HashMap<>();
+	private Map<String, Long> inFlight = Map.of();
+	private final Map<String, Integer> heldSkuCodes = new HashMap<>();
+	private int pendingEntries;
+	private long lastSeq;
+
+	@Value("${inventory.ledger.flush-entries:10000}")
+	private int flushEntries;
+
+	@Value("${inventory.ledger.retained-segments:10}")
+	private int retainedSegments;
+
+	public StockLedger(InventoryBatchRepository inventoryBatchRepository,
+					   InventoryRepository inventoryRepository,
+					   LedgerWatermarkRepository ledgerWatermarkRepository,
+					   HotSkuStockService hotSkuStockService,
+					   ApplicationEventPublisher eventPublisher,
+					   TransactionTemplate transactionTemplate,
+					   MeterRegistry meterRegistry,
+					   @Value("${inventory.ledger.enabled:false}") boolean enabled,
+					   @Value("${inventory.ledger.directory:ledger}") String directory,
+					   @Value("${inventory.ledger.journal-id:}") String journalId,
+					   @Value("${inventory.ledger.segment-bytes:67108864}") long segmentBytes,
+					   @Value("${inventory.ledger.fsync:true}") boolean fsync,
+					   @Value("${spring.application.name}") String applicationName) {
+		this.inventoryBatchRepository = inventoryBatchRepository;
+		this.inventoryRepository = inventoryRepository;
+		this.ledgerWatermarkRepository = ledgerWatermarkRepository;
+		this.hotSkuStockService = hotSkuStockService;
+		this.eventPublisher = eventPublisher;
+		this.transactionTemplate = transactionTemplate;
+		this.enabled = enabled;
+		this.journalId = enabled && journalId.isBlank() ? defaultJournalId(applicationName) : journalId;
+		this.journal = enabled ? new LedgerJournal(Path.of(directory), this.journalId, segmentBytes, fsync) : null;
+		this.flushTimer = Timer.builder("inventory.ledger.flush")
+				.description("Time to write the coalesced stock ledger deltas")
+				.register(meterRegistry);
+		Gauge.builder("inventory.ledger.pending", this, ledger -> ledger.pendingEntries)
+				.description("Stock ledger entries not yet flushed")
+				.register(meterRegistry);
+	}
+
+	// Runs before any listener or request can append, so new entries continue after the journal's last sequence
+	@PostConstruct
+	public void recover() {
+		if (!enabled) {
+			return;
+		}
+		long appliedSeq = ledgerWatermarkRepository.findById(journalId).map(LedgerWatermark::getAppliedSeq).orElse(0L);
+		synchronized (this) {
+			lastSeq = journal.replay(appliedSeq, entry -> {
+				if (entry.type() == LedgerJournal.DISCARD) {
+					pending.remove(entry.skuCode());
+				} else if (entry.type() == LedgerJournal.CARRY) {
+					pending.put(entry.skuCode(), entry.delta());
+				} else {
+					pending.merge(entry.skuCode(), entry.delta(), Long::sum);
+					pendingEntries++;
+				}
+			});
+		}
+		flusher = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "stock-ledger-flush"));
+		log.info("Stock ledger {} recovered {} unflushed entries after sequence {}", journalId, pendingEntries, appliedSeq);
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	// Appends under the monitor and syncs outside it, so restocks don't queue behind each other's fsync
+	public void record(String skuCode, long delta) {
+		if (delta == 0) {
+			return;
+		}
+		long seq;
+		boolean full;
+		synchronized (this) {
+			seq = ++lastSeq;
+			journal.append(new LedgerJournal.Entry(seq, LedgerJournal.ADJUST, delta, skuCode));
+			pending.merge(skuCode, delta, Long::sum);
+			full = ++pendingEntries >= flushEntries;
+		}
+		journal.sync(seq);
+		if (full && flushRequested.compareAndSet(false, true)) {
+			flusher.execute(this::flush);
+		}
+	}
+
+	// Records absolute quantities from product events as the deltas from what readers see, once the transaction that
+	// checked their product versions commits; a batch that rolls back records nothing
+	public void recordTargetsAfterCommit(Map<String, Integer> quantities) {
+		if (!enabled || quantities.isEmpty()) {
+			return;
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			recordTargets(quantities);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				recordTargets(quantities);
+			}
+		});
+	}
+
+	// Flushes are held off meanwhile, so the stored quantities and the pending deltas are read as of the same moment.
+	// A SKU deleted since is skipped
+	private void recordTargets(Map<String, Integer> quantities) {
+		flushLock.lock();
+		try {
+			inventoryRepository.findStockBySkuCodeIn(quantities.keySet()).forEach(stock -> record(stock.skuCode(),
+					quantities.get(stock.skuCode()) - (stock.quantity() + pendingDelta(stock.skuCode()))));
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	// Absolute writes and deletes supersede earlier deltas. The SKUs are kept out of flushes until the caller's
+	// transaction completes and their deltas are only dropped once it commits, so a rollback loses nothing. A flush
+	// already writing one of them is waited for, so it can't land after the caller's write
+	public void discard(Collection<String> skuCodes) {
+		if (!enabled || skuCodes.isEmpty()) {
+			return;
+		}
+		List<String> held = List.copyOf(skuCodes);
+		if (hold(held)) {
+			flushLock.lock();
+			flushLock.unlock();
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			journal.sync(drop(held));
+			release(held);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status == STATUS_COMMITTED) {
+					journal.sync(drop(held));
+				}
+				release(held);
+			}
+		});
+	}
+
+	public synchronized long pendingDelta(String skuCode) {
+		return pending.getOrDefault(skuCode, 0L) + inFlight.getOrDefault(skuCode, 0L);
+	}
+
+	@Scheduled(fixedDelayString = "${inventory.ledger.flush-interval-ms:200}")
+	public void flush() {
+		if (!enabled) {
+			return;
+		}
+		flushRequested.set(false);
+		flushLock.lock();
+		try {
+			Map<String, Long> deltas;
+			long upToSeq;
+			long carriedSeq;
+			synchronized (this) {
+				if (pending.isEmpty()) {
+					pendingEntries = 0;
+					return;
+				}
+				// SKU order keeps row locks ordered against other batch writers. Held SKUs wait for the next flush
+				deltas = new TreeMap<>(pending);
+				deltas.keySet().removeAll(heldSkuCodes.keySet());
+				if (deltas.isEmpty()) {
+					return;
+				}
+				// The watermark moves past the held SKUs' entries, so their pending deltas are restated after it
+				upToSeq = lastSeq;
+				for (String skuCode : heldSkuCodes.keySet()) {
+					Long delta = pending.get(skuCode);
+					if (delta != null) {
+						journal.append(new LedgerJournal.Entry(++lastSeq, LedgerJournal.CARRY, delta, skuCode));
+					}
+				}
+				pending.keySet().removeAll(deltas.keySet());
+				inFlight = deltas;
+				pendingEntries = pending.size();
+				carriedSeq = lastSeq;
+			}
+			// The carried deltas must be durable before the watermark that skips their original entries commits
+			journal.sync(carriedSeq);
+
+			boolean written = false;
+			try {
+				flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> write(deltas, upToSeq)));
+				written = true;
+			} catch (RuntimeException e) {
+				log.warn("Failed to flush {} stock ledger deltas, keeping them for the next flush", deltas.size(), e);
+			}
+			synchronized (this) {
+				inFlight = Map.of();
+				if (!written) {
+					deltas.forEach((skuCode, delta) -> pending.merge(skuCode, delta, Long::sum));
+					pendingEntries += deltas.size();
+				} else {
+					journal.prune(upToSeq, retainedSegments);
+				}
+			}
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (!enabled) {
+			return;
+		}
+		flusher.shutdown();
+		flush();
+		synchronized (this) {
+			journal.close();
+		}
+	}
+
+	private void write(Map<String, Long> deltas, long upToSeq) {
+		inventoryBatchRepository.applyDeltas(deltas);
+		ledgerWatermarkRepository.save(new LedgerWatermark(journalId, upToSeq));
+
+		List<Inventory> inventories = inventoryRepository.findBySkuCodeIn(new ArrayList<>(deltas.keySet()));
+		Map<String, Integer> bucketTotals = hotSkuStockService.bucketTotals(inventories.stream()
+				.filter(inventory -> inventory.getBuckets() != null)
+				.map(Inventory::getSkuCode)
+				.toList());
+		inventories.forEach(inventory -> eventPublisher.publishEvent(InventoryChangedEvent.builder()
+				.skuCode(inventory.getSkuCode())
+				.quantity(inventory.getQuantity() + bucketTotals.getOrDefault(inventory.getSkuCode(), 0))
+				.deleted(false)
+				.changedAt(System.currentTimeMillis())
+				.build()));
+		log.info("Flushed {} stock ledger deltas up to sequence {}", deltas.size(), upToSeq);
+	}
+
+	// Keeps the SKUs out of flushes and reports whether any of them is part of a flush in progress
+	private synchronized boolean hold(Collection<String> skuCodes) {
+		boolean flushing = false;
+		for (String skuCode : skuCodes) {
+			heldSkuCodes.merge(skuCode, 1, Integer::sum);
+			flushing |= inFlight.containsKey(skuCode);
+		}
+		return flushing;
+	}
+
+	private synchronized void release(Collection<String> skuCodes) {
+		skuCodes.forEach(skuCode -> heldSkuCodes.computeIfPresent(skuCode, (sku, holds) -> holds == 1 ? null : holds - 1));
+	}
+
+	// Returns the last sequence appended, for the caller to sync outside the monitor
+	private synchronized long drop(Collection<String> skuCodes) {
+		for (String skuCode : skuCodes) {
+			if (pending.remove(skuCode) != null) {
+				journal.append(new LedgerJournal.Entry(++lastSeq, LedgerJournal.DISCARD, 0, skuCode));
+			}
+		}
+		return lastSeq;
+	}
+
+	// Must stay the same across restarts of this instance, or its journal would never be replayed
+	private static String defaultJournalId(String applicationName) {
+		String host;
+		try {
+			host = InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			throw new IllegalStateException("Unable to derive a stock ledger journal id, set inventory.ledger.journal-id", e);
+		}
+		return (applicationName + "-" + host).replaceAll("[^A-Za-z0-9._-]", "_");
+	}
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.inventoryservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Hierarchical timing wheel: LEVELS wheels of SLOTS buckets, each level's bucket spanning a full turn of the level
+// below. Scheduling and cancelling are O(1); advancing a tick fires one level-0 bucket and, on level boundaries,
+// re-distributes one bucket of the level above. Entries further out than the top level covers are parked in its
+// last bucket and re-placed each time it cascades. Not thread-safe on its own; callers synchronise
+class TimingWheel<T> {
+
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int LEVELS = 4;
+
+	private final long tickMillis;
+	private final List<List<Timeout<T>>[]> levels = new ArrayList<>(LEVELS);
+	private final List<Timeout<T>> overdue = new ArrayList<>();
+	private long currentTick;
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	TimingWheel(long tickMillis, long startMillis) {
+		this.tickMillis = tickMillis;
+		this.currentTick = startMillis / tickMillis;
+		for (int level = 0; level < LEVELS; level++) {
+			List<Timeout<T>>[] buckets = new List[SLOTS];
+			for (int slot = 0; slot < SLOTS; slot++) {
+				buckets[slot] = new ArrayList<>();
+			}
+			levels.add(buckets);
+		}
+	}
+
+	Timeout<T> schedule(T item, long deadlineMillis) {
+		Timeout<T> timeout = new Timeout<>(item, Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis));
+		place(timeout);
+		size++;
+		return timeout;
+	}
+
+	// Fires everything due up to nowMillis, skipping cancelled entries
+	List<T> advanceTo(long nowMillis) {
+		List<T> due = new ArrayList<>();
+		drain(overdue, due);
+		long targetTick = nowMillis / tickMillis;
+		while (currentTick < targetTick) {
+			currentTick++;
+			for (int level = LEVELS - 1; level > 0; level--) {
+				if (currentTick % span(level) == 0) {
+					List<Timeout<T>> bucket = levels.get(level)[slotOf(currentTick, level)];
+					List<Timeout<T>> cascading = new ArrayList<>(bucket);
+					bucket.clear();
+					cascading.forEach(this::place);
+				}
+			}
+			drain(levels.get(0)[slotOf(currentTick, 0)], due);
+			drain(overdue, due);
+		}
+		return due;
+	}
+
+	// O(1): the entry stays in its bucket and is dropped when the bucket is next touched
+	void cancel(Timeout<T> timeout) {
+		if (!timeout.cancelled) {
+			timeout.cancelled = true;
+			size--;
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	private void place(Timeout<T> timeout) {
+		if (timeout.cancelled) {
+			return;
+		}
+		long delta = timeout.deadlineTick - currentTick;
+		if (delta <= 0) {
+			overdue.add(timeout);
+			return;
+		}
+		for (int level = 0; level < LEVELS; level++) {
+			if (delta < span(level + 1)) {
+				levels.get(level)[slotOf(timeout.deadlineTick, level)].add(timeout);
+				return;
+			}
+		}
+		int top = LEVELS - 1;
+		levels.get(top)[slotOf(currentTick + span(LEVELS) - 1, top)].add(timeout);
+	}
+
+	private void drain(List<Timeout<T>> bucket, List<T> due) {
+		for (Timeout<T> timeout : bucket) {
+			if (!timeout.cancelled) {
+				due.add(timeout.item);
+				size--;
+			}
+		}
+		bucket.clear();
+	}
+
+	private static long span(int level) {
+		return 1L << (SLOT_BITS * level);
+	}
+
+	private static int slotOf(long tick, int level) {
+		return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+	}
+
+	static final class Timeout<T> {
+
+		private final T item;
+		private final long deadlineTick;
+		private boolean cancelled;
+
+		private Timeout(T item, long deadlineTick) {
+			this.item = item;
+			this.deadlineTick = deadlineTick;
+		}
+	}
+}
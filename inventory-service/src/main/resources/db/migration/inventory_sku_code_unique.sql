@@ -0,0 +1,11 @@
+-- Replaces the non-unique idx_inventory_sku_code with uk_inventory_sku_code. Rows duplicated by concurrent
+-- find-then-save writes are collapsed to the most recently inserted one first; review them before running.
+-- Run once before starting the new version, otherwise ddl-auto fails to create the unique index.
+
+DELETE older
+FROM t_inventory older
+    JOIN t_inventory newer ON newer.sku_code = older.sku_code AND newer.id > older.id;
+
+ALTER TABLE t_inventory
+    DROP INDEX idx_inventory_sku_code,
+    ADD UNIQUE INDEX uk_inventory_sku_code (sku_code);
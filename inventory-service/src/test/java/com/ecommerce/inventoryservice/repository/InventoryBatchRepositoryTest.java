@@ -0,0 +1,57 @@
+package com.ecommerce.inventoryservice.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InventoryBatchRepositoryTest {
+
+	@Test
+	void upsertWritesEachChunkAsOneInsertWithTheRowAliasOnce() {
+		String sql = InventoryBatchRepository.upsertSql("(?, ?, ?)", 1000, InventoryBatchRepository.UPSERT_QUANTITY_UPDATE);
+
+		assertThat(sql.split("(?i)insert into", -1)).hasSize(2);
+		assertThat(sql.split("\\)\\s*,\\s*\\(", -1)).hasSize(1000);
+		assertThat(sql.split(" as new ", -1)).hasSize(2);
+		assertThat(sql).doesNotContainIgnoringCase("values(");
+		assertThat(InventoryBatchRepository.UPSERT_VERSION_UPDATE).doesNotContainIgnoringCase("values(");
+	}
+
+	@Test
+	void upsertSendsOneStatementPerShapeAndChunk() {
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		List<String> statements = new ArrayList<>();
+		List<Object> parameters = new ArrayList<>();
+		when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+			statements.add(invocation.getArgument(0));
+			PreparedStatement statement = mock(PreparedStatement.class);
+			doAnswer(set -> parameters.add(set.getArgument(1))).when(statement).setString(anyInt(), anyString());
+			invocation.<PreparedStatementSetter>getArgument(1).setValues(statement);
+			return 1;
+		});
+
+		List<InventoryChange> changes = new ArrayList<>();
+		IntStream.range(0, 1001).forEach(i -> changes.add(new InventoryChange("SKU-" + i, i, 1L)));
+		changes.add(new InventoryChange("SKU-V", null, 1L));
+		new InventoryBatchRepository(jdbcTemplate).upsert(changes);
+
+		assertThat(statements).containsExactly(
+				InventoryBatchRepository.upsertSql("(?, ?, ?)", 1000, InventoryBatchRepository.UPSERT_QUANTITY_UPDATE),
+				InventoryBatchRepository.upsertSql("(?, ?, ?)", 1, InventoryBatchRepository.UPSERT_QUANTITY_UPDATE),
+				InventoryBatchRepository.upsertSql("(?, 0, ?)", 1, InventoryBatchRepository.UPSERT_VERSION_UPDATE));
+		assertThat(parameters).hasSize(1002).startsWith("SKU-0", "SKU-1").endsWith("SKU-1000", "SKU-V");
+	}
+}
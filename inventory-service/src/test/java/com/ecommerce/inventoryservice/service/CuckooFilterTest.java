@@ -0,0 +1,52 @@
+package com.ecommerce.inventoryservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CuckooFilterTest {
+
+	@Test
+	void everyAddedItemIsFoundUpToCapacity() {
+		CuckooFilter filter = new CuckooFilter(100_000);
+
+		IntStream.range(0, 100_000).forEach(i -> assertThat(filter.add("SKU-" + i)).isTrue());
+
+		assertThat(filter.isFull()).isFalse();
+		assertThat(filter.count()).isEqualTo(100_000);
+		assertThat(IntStream.range(0, 100_000).filter(i -> !filter.mightContain("SKU-" + i))).isEmpty();
+	}
+
+	@Test
+	void falsePositivesStayNearTheExpectedRate() {
+		CuckooFilter filter = new CuckooFilter(100_000);
+		IntStream.range(0, 100_000).forEach(i -> filter.add("SKU-" + i));
+
+		long falsePositives = IntStream.range(0, 1_000_000).filter(i -> filter.mightContain("ABSENT-" + i)).count();
+
+		assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.001);
+		assertThat(falsePositives / 1_000_000.0).isLessThan(filter.expectedFalsePositiveRate() * 2 + 0.0001);
+	}
+
+	@Test
+	void aFullFilterAnswersMaybeForEverything() {
+		CuckooFilter filter = new CuckooFilter(8);
+		int added = 0;
+		while (filter.add("SKU-" + added)) {
+			added++;
+		}
+
+		assertThat(filter.isFull()).isTrue();
+		assertThat((long) added).isEqualTo(filter.count()).isGreaterThanOrEqualTo(8);
+		assertThat(filter.add("SKU-new")).isFalse();
+		assertThat(filter.mightContain("never-added")).isTrue();
+	}
+
+	@Test
+	void sizesTheTableToAPowerOfTwoBuckets() {
+		assertThat(new CuckooFilter(1).memoryBytes()).isEqualTo(4 * Short.BYTES);
+		assertThat(new CuckooFilter(100_000).memoryBytes()).isEqualTo(32_768L * 4 * Short.BYTES);
+	}
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.model.Inventory;
+import com.ecommerce.inventoryservice.model.InventoryBucket;
+import com.ecommerce.inventoryservice.repository.InventoryBucketRepository;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// H2 in MySQL mode stands in for MySQL. The test's own transaction plays the decrement; a concurrent rebalance
+// commits in a separate transaction in between
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:inventory;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({HotSkuStockService.class, HotSkuStockServiceTest.Config.class})
+@Transactional(isolation = Isolation.READ_COMMITTED)
+class HotSkuStockServiceTest {
+
+	private static final String SKU = "SKU-HOT";
+
+	@Autowired
+	private HotSkuStockService hotSkuStockService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private InventoryBucketRepository inventoryBucketRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterTransaction
+	void cleanUp() {
+		separately(() -> {
+			inventoryBucketRepository.deleteBySkuCode(SKU);
+			inventoryRepository.findBySkuCode(SKU).ifPresent(inventoryRepository::delete);
+		});
+	}
+
+	@Test
+	void takeSpreadRereadsARowThatRecheckLoadedBeforeARebalance() {
+		separately(() -> hotSku(10, 0, 0));
+
+		assertThat(hotSkuStockService.recheck(SKU)).isTrue();
+		// A rebalance elsewhere folds the row's 10 into the buckets after recheck read the row
+		separately(() -> {
+			inventoryRepository.findBySkuCode(SKU).orElseThrow().setQuantity(0);
+			inventoryBucketRepository.findBySkuCode(SKU).forEach(bucket -> bucket.setQuantity(5));
+		});
+
+		assertThat(hotSkuStockService.take(SKU, 15)).isFalse();
+		assertThat(hotSkuStockService.take(SKU, 10)).isTrue();
+		assertThat(inventoryRepository.findBySkuCode(SKU).orElseThrow().getQuantity()).isZero();
+		assertThat(inventoryBucketRepository.findBySkuCode(SKU)).extracting(InventoryBucket::getQuantity)
+				.containsExactly(0, 0);
+	}
+
+	@Test
+	void takeSpreadDrainsTheBucketsBeforeTheRow() {
+		separately(() -> hotSku(4, 3, 2));
+		hotSkuStockService.recheck(SKU);
+
+		assertThat(hotSkuStockService.take(SKU, 7)).isTrue();
+		assertThat(inventoryRepository.findBySkuCode(SKU).orElseThrow().getQuantity()).isEqualTo(2);
+		assertThat(inventoryBucketRepository.findBySkuCode(SKU)).extracting(InventoryBucket::getQuantity)
+				.containsExactly(0, 0);
+	}
+
+	private void hotSku(int rowQuantity, int... bucketQuantities) {
+		inventoryRepository.save(Inventory.builder().skuCode(SKU).quantity(rowQuantity).buckets(bucketQuantities.length).build());
+		for (int bucket = 0; bucket < bucketQuantities.length; bucket++) {
+			inventoryBucketRepository.save(InventoryBucket.builder().skuCode(SKU).bucket(bucket)
+					.quantity(bucketQuantities[bucket]).build());
+		}
+	}
+
+	private void separately(Runnable work) {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		template.executeWithoutResult(status -> work.run());
+	}
+
+	@TestConfiguration
+	static class Config {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+
+		@Bean
+		TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+			return new TransactionTemplate(transactionManager);
+		}
+	}
+}
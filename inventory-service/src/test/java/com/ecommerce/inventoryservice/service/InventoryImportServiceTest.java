@@ -0,0 +1,76 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.repository.InventoryChange;
+import com.ecommerce.inventoryservice.response.ImportRowError;
+import com.ecommerce.inventoryservice.response.InventoryImportResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class InventoryImportServiceTest {
+
+	private final InventoryService inventoryService = mock(InventoryService.class);
+	private final List<InventoryChange> written = Collections.synchronizedList(new ArrayList<>());
+	private InventoryImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		importService = new InventoryImportService(inventoryService, new ObjectMapper(), new SimpleMeterRegistry(), 1);
+		ReflectionTestUtils.setField(importService, "batchSize", 3);
+		ReflectionTestUtils.setField(importService, "maxErrors", 100);
+		// Stands in for a row the database refuses: the whole batch holding it rolls back
+		doAnswer(invocation -> {
+			List<InventoryChange> changes = invocation.getArgument(0);
+			if (changes.stream().anyMatch(change -> change.skuCode().startsWith("BAD"))) {
+				throw new DataIntegrityViolationException("rejected " + changes.size() + " rows");
+			}
+			written.addAll(changes);
+			return null;
+		}).when(inventoryService).importInventory(anyList());
+	}
+
+	@AfterEach
+	void tearDown() {
+		importService.shutdown();
+	}
+
+	@Test
+	void aFailedBatchIsRetriedRowByRowAndOnlyTheBadLineIsRejected() {
+		InventoryImportResponse response = importCsv("sku,quantity\nSKU-1,1\nBAD-2,2\nSKU-3,3\nSKU-4,4\n");
+
+		assertThat(response.getRowsRead()).isEqualTo(4);
+		assertThat(response.getRowsImported()).isEqualTo(3);
+		assertThat(response.getRowsRejected()).isEqualTo(1);
+		assertThat(response.getErrors()).extracting(ImportRowError::getLine).containsExactly(3L);
+		assertThat(written).extracting(InventoryChange::skuCode).containsExactly("SKU-1", "SKU-3", "SKU-4");
+	}
+
+	@Test
+	void parseErrorsAndWriteErrorsKeepTheirOwnLines() {
+		InventoryImportResponse response = importCsv("SKU-1,1\nSKU-2,x\nBAD-3,3\nSKU-4,4\nBAD-5,5\n");
+
+		assertThat(response.getRowsImported()).isEqualTo(2);
+		assertThat(response.getErrors()).extracting(ImportRowError::getLine).containsExactlyInAnyOrder(2L, 3L, 5L);
+	}
+
+	private InventoryImportResponse importCsv(String body) {
+		return importService.importInventory(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+				MediaType.valueOf("text/csv"));
+	}
+}
@@ -0,0 +1,158 @@
+package com.ecommerce.inventoryservice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LedgerJournalTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void replaysOnlyEntriesAfterTheWatermark() {
+		LedgerJournal journal = journal(1024);
+		append(journal, 1, 5);
+		journal.append(new LedgerJournal.Entry(6, LedgerJournal.DISCARD, 0, "SKU-2"));
+		journal.close();
+
+		List<LedgerJournal.Entry> replayed = new ArrayList<>();
+		long lastSeq = journal(1024).replay(3, replayed::add);
+
+		assertThat(lastSeq).isEqualTo(6);
+		assertThat(replayed).containsExactly(
+				new LedgerJournal.Entry(4, LedgerJournal.ADJUST, 4, "SKU-4"),
+				new LedgerJournal.Entry(5, LedgerJournal.ADJUST, 5, "SKU-5"),
+				new LedgerJournal.Entry(6, LedgerJournal.DISCARD, 0, "SKU-2"));
+	}
+
+	@Test
+	void reportsTheLastSequenceEvenWhenEverythingIsApplied() {
+		LedgerJournal journal = journal(1024);
+		append(journal, 1, 3);
+		journal.close();
+
+		List<LedgerJournal.Entry> replayed = new ArrayList<>();
+		assertThat(journal(1024).replay(3, replayed::add)).isEqualTo(3);
+		assertThat(replayed).isEmpty();
+		assertThat(new LedgerJournal(directory.resolve("missing"), "test", 1024, false).replay(7, replayed::add))
+				.isEqualTo(7);
+	}
+
+	@Test
+	void replaysAcrossSegmentsInSequenceOrder() throws IOException {
+		LedgerJournal journal = journal(1);
+		append(journal, 1, 12);
+		journal.close();
+
+		List<Long> sequences = new ArrayList<>();
+		journal(1).replay(0, entry -> sequences.add(entry.seq()));
+
+		assertThat(segments()).hasSize(12);
+		assertThat(sequences).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L);
+	}
+
+	@Test
+	void skipsATornLastLine() throws IOException {
+		LedgerJournal journal = journal(1024);
+		append(journal, 1, 2);
+		journal.close();
+		Files.writeString(segments().get(0), "3,A,7", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		List<Long> sequences = new ArrayList<>();
+		assertThat(journal(1024).replay(0, entry -> sequences.add(entry.seq()))).isEqualTo(2);
+		assertThat(sequences).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void skipsALastLineTornInsideTheSku() throws IOException {
+		LedgerJournal journal = journal(1024);
+		append(journal, 1, 2);
+		journal.close();
+		Files.writeString(segments().get(0), "3,A,50,S", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		List<LedgerJournal.Entry> replayed = new ArrayList<>();
+		assertThat(journal(1024).replay(0, replayed::add)).isEqualTo(2);
+		assertThat(replayed).extracting(LedgerJournal.Entry::skuCode).containsExactly("SKU-1", "SKU-2");
+	}
+
+	@Test
+	void syncedEntriesSurviveRollingSegments() {
+		LedgerJournal journal = new LedgerJournal(directory, "test", 64, true);
+		for (long seq = 1; seq <= 20; seq++) {
+			journal.append(new LedgerJournal.Entry(seq, LedgerJournal.ADJUST, seq, "SKU-" + seq));
+			journal.sync(seq);
+		}
+		journal.sync(20);
+		journal.close();
+
+		List<Long> sequences = new ArrayList<>();
+		assertThat(journal(64).replay(0, entry -> sequences.add(entry.seq()))).isEqualTo(20);
+		assertThat(sequences).hasSize(20).isSorted();
+	}
+
+	@Test
+	void ignoresOtherJournalsInTheSameDirectory() {
+		LedgerJournal other = new LedgerJournal(directory, "other", 1024, false);
+		append(other, 1, 9);
+		other.close();
+		LedgerJournal journal = journal(1024);
+		append(journal, 1, 2);
+		journal.close();
+
+		List<LedgerJournal.Entry> replayed = new ArrayList<>();
+		assertThat(journal(1024).replay(0, replayed::add)).isEqualTo(2);
+		assertThat(replayed).extracting(LedgerJournal.Entry::skuCode).containsExactly("SKU-1", "SKU-2");
+	}
+
+	@Test
+	void pruneKeepsSegmentsWithUnappliedEntries() throws IOException {
+		LedgerJournal journal = journal(1);
+		append(journal, 1, 5);
+
+		journal.prune(3, 1);
+
+		List<Long> sequences = new ArrayList<>();
+		journal(1).replay(0, entry -> sequences.add(entry.seq()));
+		assertThat(segments()).hasSize(2);
+		assertThat(sequences).containsExactly(4L, 5L);
+		journal.close();
+	}
+
+	@Test
+	void pruneRetainsTheNewestSegments() throws IOException {
+		LedgerJournal journal = journal(1);
+		append(journal, 1, 5);
+
+		journal.prune(5, 3);
+
+		assertThat(segments()).hasSize(3);
+		journal.close();
+	}
+
+	private LedgerJournal journal(long segmentBytes) {
+		return new LedgerJournal(directory, "test", segmentBytes, false);
+	}
+
+	private static void append(LedgerJournal journal, long fromSeq, long toSeq) {
+		for (long seq = fromSeq; seq <= toSeq; seq++) {
+			journal.append(new LedgerJournal.Entry(seq, LedgerJournal.ADJUST, seq, "SKU-" + seq));
+		}
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> path.getFileName().toString().startsWith("test-")).sorted().toList();
+		}
+	}
+}
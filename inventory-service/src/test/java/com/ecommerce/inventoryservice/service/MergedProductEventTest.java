@@ -0,0 +1,172 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.events.ProductEvent;
+import com.ecommerce.inventoryservice.repository.InventoryChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Row stands in for t_inventory under the upsert and delete statements' product_version guard; a folded batch must
+// leave it as applying the events one by one would
+class MergedProductEventTest {
+
+	private static final String SKU = "SKU-1";
+
+	@Test
+	void aStaleQuantityDoesNotRideAlongWithANewerVersion() {
+		Row stored = new Row(40, 5L);
+
+		Row batched = batched(stored, event("CREATED", 5, 3L), event("UPDATED", null, 6L));
+
+		assertThat(batched).isEqualTo(new Row(40, 6L)).isEqualTo(oneByOne(stored, event("CREATED", 5, 3L), event("UPDATED", null, 6L)));
+	}
+
+	@Test
+	void aNullQuantityKeepsTheQuantityFoldedBeforeIt() {
+		MergedProductEvent merged = fold(event("CREATED", 5, 3L), event("UPDATED", null, 6L));
+
+		assertThat(merged.upserts(SKU)).containsExactly(new InventoryChange(SKU, 5, 3L), new InventoryChange(SKU, null, 6L));
+		assertThat(batched(new Row(40, 2L), event("CREATED", 5, 3L), event("UPDATED", null, 6L))).isEqualTo(new Row(5, 6L));
+		assertThat(batched(null, event("UPDATED", null, 6L))).isEqualTo(new Row(0, 6L));
+	}
+
+	@Test
+	void versionsNotNewerThanTheFoldAreSkipped() {
+		MergedProductEvent merged = fold(event("UPDATED", 7, 4L), event("UPDATED", 9, 4L), event("DELETED", null, 2L));
+
+		assertThat(merged.deletes(SKU)).isEmpty();
+		assertThat(merged.upserts(SKU)).containsExactly(new InventoryChange(SKU, 7, 4L));
+	}
+
+	@Test
+	void aSkuCreatedAgainAfterADeleteStartsAtZeroOnlyIfTheDeleteApplied() {
+		ProductEvent[] events = {event("DELETED", null, 4L), event("CREATED", null, 6L)};
+
+		assertThat(fold(events).deletes(SKU)).containsExactly(new InventoryChange(SKU, null, 4L));
+		assertThat(fold(events).upserts(SKU)).containsExactly(new InventoryChange(SKU, null, 6L));
+		assertThat(batched(new Row(40, 3L), events)).isEqualTo(new Row(0, 6L)).isEqualTo(oneByOne(new Row(40, 3L), events));
+		assertThat(batched(new Row(40, 5L), events)).isEqualTo(new Row(40, 6L)).isEqualTo(oneByOne(new Row(40, 5L), events));
+		assertThat(batched(new Row(40, 3L), event("CREATED", 8, 2L), event("DELETED", null, 4L))).isNull();
+		assertThat(batched(new Row(40, 8L), event("DELETED", null, null), event("UPDATED", 3, 1L))).isEqualTo(new Row(3, 1L));
+	}
+
+	@Test
+	void anUnversionedQuantityBeforeAVersionedDeleteIsWrittenFirst() {
+		ProductEvent[] events = {event("UPDATED", 23, null), event("DELETED", null, 9L)};
+
+		assertThat(MergedProductEvent.of(events[0]).then(events[1])).isNull();
+		assertThat(batched(new Row(17, 9L), events)).isEqualTo(new Row(23, 9L));
+		assertThat(batched(new Row(17, 8L), events)).isNull();
+	}
+
+	@Test
+	void anyBatchMatchesApplyingItsEventsOneByOne() {
+		Random random = new Random(42);
+		for (int run = 0; run < 20_000; run++) {
+			ProductEvent[] events = new ProductEvent[1 + random.nextInt(5)];
+			for (int i = 0; i < events.length; i++) {
+				String type = List.of("CREATED", "UPDATED", "DELETED").get(random.nextInt(3));
+				Integer quantity = random.nextBoolean() ? random.nextInt(50) : null;
+				Long version = random.nextInt(8) == 0 ? null : Long.valueOf(random.nextInt(10));
+				events[i] = event(type, quantity, version);
+			}
+			if (replaysBehindADelete(events)) {
+				continue;
+			}
+			Row stored = random.nextInt(4) == 0 ? null
+					: new Row(random.nextInt(50), random.nextInt(8) == 0 ? null : Long.valueOf(random.nextInt(10)));
+
+			assertThat(batched(stored, events)).as("%s against %s", List.of(events), stored).isEqualTo(oneByOne(stored, events));
+		}
+	}
+
+	// Applied one by one, an event not newer than a delete before it recreates the row the delete removed; the fold
+	// keeps such a redelivery out
+	private static boolean replaysBehindADelete(ProductEvent... events) {
+		Long deletedAt = null;
+		for (ProductEvent event : events) {
+			if (deletedAt != null && event.getVersion() != null && event.getVersion() <= deletedAt) {
+				return true;
+			}
+			if ("DELETED".equals(event.getEventType()) && event.getVersion() != null) {
+				deletedAt = deletedAt == null ? event.getVersion() : Math.max(deletedAt, event.getVersion());
+			}
+		}
+		return false;
+	}
+
+	private static MergedProductEvent fold(ProductEvent... events) {
+		MergedProductEvent merged = MergedProductEvent.of(events[0]);
+		for (int i = 1; i < events.length; i++) {
+			merged = merged.then(events[i]);
+		}
+		return merged;
+	}
+
+	private static Row oneByOne(Row stored, ProductEvent... events) {
+		Row row = stored;
+		for (ProductEvent event : events) {
+			InventoryChange change = new InventoryChange(SKU, event.getQuantity(), event.getVersion());
+			row = "DELETED".equals(event.getEventType()) ? delete(row, change) : upsert(row, change);
+		}
+		return row;
+	}
+
+	private static Row batched(Row stored, ProductEvent... events) {
+		Row row = stored;
+		MergedProductEvent merged = MergedProductEvent.of(events[0]);
+		for (int i = 1; i < events.length; i++) {
+			MergedProductEvent next = merged.then(events[i]);
+			if (next == null) {
+				row = write(row, merged);
+				next = MergedProductEvent.of(events[i]);
+			}
+			merged = next;
+		}
+		return write(row, merged);
+	}
+
+	// As InventoryService sends them: deletes, then the quantity statement, then the version statement
+	private static Row write(Row row, MergedProductEvent merged) {
+		for (InventoryChange change : merged.deletes(SKU)) {
+			row = delete(row, change);
+		}
+		List<InventoryChange> upserts = new ArrayList<>(merged.upserts(SKU));
+		upserts.sort(Comparator.comparing(change -> change.quantity() == null));
+		for (InventoryChange change : upserts) {
+			row = upsert(row, change);
+		}
+		return row;
+	}
+
+	private static Row upsert(Row row, InventoryChange change) {
+		if (row == null) {
+			return new Row(change.quantity() != null ? change.quantity() : 0, change.version());
+		}
+		if (!newer(row, change)) {
+			return row;
+		}
+		return new Row(change.quantity() != null ? change.quantity() : row.quantity(),
+				change.version() != null ? change.version() : row.version());
+	}
+
+	private static Row delete(Row row, InventoryChange change) {
+		return row != null && newer(row, change) ? null : row;
+	}
+
+	private static boolean newer(Row row, InventoryChange change) {
+		return change.version() == null || row.version() == null || row.version() < change.version();
+	}
+
+	private static ProductEvent event(String type, Integer quantity, Long version) {
+		return ProductEvent.builder().sku(SKU).eventType(type).quantity(quantity).version(version).build();
+	}
+
+	private record Row(int quantity, Long version) {
+	}
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.events.ProductEvent;
+import com.ecommerce.inventoryservice.repository.InventoryBatchRepository;
+import com.ecommerce.inventoryservice.repository.InventoryChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Plain micro-benchmark of applying product events for 1M SKUs up to the wire: folding them per SKU and binding the
+// multi-row upserts, with the statements counted instead of sent. Timings are printed, not asserted; the statement
+// count is what the batch path saves over a find-then-save per event
+class ProductEventApplyBenchmarkTest {
+
+	private static final int SKUS = 1_000_000;
+	private static final int BATCH_SIZE = 500;
+
+	@Test
+	void appliesAMillionSkusWithOneStatementPerConsumerBatch() {
+		AtomicLong statements = new AtomicLong();
+		AtomicLong boundRows = new AtomicLong();
+		// A no-op statement: a Mockito mock would record every bound parameter and dominate the timing
+		PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> null);
+		JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+		when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+			statements.incrementAndGet();
+			invocation.<PreparedStatementSetter>getArgument(1).setValues(statement);
+			return 1;
+		});
+		InventoryBatchRepository repository = new InventoryBatchRepository(jdbcTemplate);
+
+		apply(repository, 100_000, new AtomicLong());
+		statements.set(0);
+		long started = System.nanoTime();
+		long events = apply(repository, SKUS, boundRows);
+		long elapsedNanos = System.nanoTime() - started;
+
+		System.out.printf("%,d product events for %,d SKUs folded and bound in %d ms (%,d events/s), %,d statements "
+						+ "where find-then-save took %,d%n", events, SKUS, elapsedNanos / 1_000_000,
+				events * 1_000_000_000L / Math.max(elapsedNanos, 1), statements.get(), 2 * events);
+		assertThat(boundRows.get()).isEqualTo(SKUS);
+		// Each consumer batch is one multi-row upsert; a find-then-save per event took two round trips each
+		assertThat(statements.get()).isEqualTo(events / BATCH_SIZE);
+	}
+
+	// Events arrive in consumer batches of BATCH_SIZE, a SKU's two events in the same batch, as applyProductEvents
+	// gets them from one partition
+	private static long apply(InventoryBatchRepository repository, int skus, AtomicLong boundRows) {
+		long events = 0;
+		List<ProductEvent> batch = new ArrayList<>(BATCH_SIZE);
+		for (int sku = 0; sku < skus; sku++) {
+			String skuCode = String.format("SKU-%07d", sku);
+			batch.add(ProductEvent.builder().sku(skuCode).eventType("CREATED").quantity(sku % 100).version(1L).build());
+			batch.add(ProductEvent.builder().sku(skuCode).eventType("UPDATED").quantity(sku % 50).version(2L).build());
+			if (batch.size() == BATCH_SIZE) {
+				events += write(repository, batch, boundRows);
+				batch.clear();
+			}
+		}
+		return events + write(repository, batch, boundRows);
+	}
+
+	private static int write(InventoryBatchRepository repository, List<ProductEvent> batch, AtomicLong boundRows) {
+		if (batch.isEmpty()) {
+			return 0;
+		}
+		Map<String, MergedProductEvent> mergedBySku = new TreeMap<>();
+		for (ProductEvent productEvent : batch) {
+			MergedProductEvent merged = mergedBySku.get(productEvent.getSku());
+			mergedBySku.put(productEvent.getSku(), merged == null ? MergedProductEvent.of(productEvent) : merged.then(productEvent));
+		}
+		List<InventoryChange> upserts = new ArrayList<>();
+		mergedBySku.forEach((sku, merged) -> upserts.addAll(merged.upserts(sku)));
+		repository.upsert(upserts);
+		boundRows.addAndGet(upserts.size());
+		return batch.size();
+	}
+}
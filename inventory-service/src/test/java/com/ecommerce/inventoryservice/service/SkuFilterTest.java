@@ -0,0 +1,101 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.dto.InventoryChangedEvent;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SkuFilterTest {
+
+	private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SkuFilter skuFilter = new SkuFilter(inventoryRepository, transactionTemplate, meterRegistry);
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ReflectionTestUtils.setField(skuFilter, "enabled", true);
+		ReflectionTestUtils.setField(skuFilter, "headroom", 1.5);
+		ReflectionTestUtils.setField(skuFilter, "minCapacity", 1_000L);
+		doAnswer(invocation -> {
+			invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+	}
+
+	@Test
+	void everythingIsAMaybeUntilTheFirstBuild() {
+		assertThat(skuFilter.mightContain("SKU-1")).isTrue();
+	}
+
+	@Test
+	void answersDefiniteMissesAfterABuild() {
+		build(100);
+
+		assertThat(IntStream.range(0, 100).allMatch(i -> skuFilter.mightContain("SKU-" + i))).isTrue();
+		long misses = IntStream.range(0, 1_000).filter(i -> !skuFilter.mightContain("ABSENT-" + i)).count();
+		assertThat(misses).isGreaterThan(990);
+		assertThat(meterRegistry.get("inventory.sku_filter.definite_misses").counter().count()).isEqualTo(misses);
+		assertThat(meterRegistry.get("inventory.sku_filter.skus").gauge().value()).isEqualTo(100);
+	}
+
+	@Test
+	void creationsAreAddedAndDeletionsStayMaybe() {
+		build(10);
+
+		skuFilter.apply(new InventoryChangedEvent("NEW-1", 5, false, 0));
+		skuFilter.onLocalChange(new InventoryChangedEvent("SKU-1", 0, true, 0));
+
+		assertThat(skuFilter.mightContain("NEW-1")).isTrue();
+		assertThat(skuFilter.mightContain("SKU-1")).isTrue();
+	}
+
+	@Test
+	void concurrentAddsNeverHideKnownSkusFromReaders() throws Exception {
+		build(500);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Long>> readers = new ArrayList<>();
+			for (int thread = 0; thread < 3; thread++) {
+				readers.add(executor.submit(() -> IntStream.range(0, 200_000)
+						.filter(i -> !skuFilter.mightContain("SKU-" + i % 500))
+						.count()));
+			}
+			executor.submit(() -> IntStream.range(0, 400)
+					.forEach(i -> skuFilter.apply(new InventoryChangedEvent("NEW-" + i, 1, false, 0)))).get();
+
+			for (Future<Long> reader : readers) {
+				assertThat(reader.get()).isZero();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertThat(IntStream.range(0, 400).allMatch(i -> skuFilter.mightContain("NEW-" + i))).isTrue();
+	}
+
+	private void build(int skus) {
+		when(inventoryRepository.count()).thenReturn((long) skus);
+		when(inventoryRepository.streamSkuCodes()).thenAnswer(invocation -> IntStream.range(0, skus).mapToObj(i -> "SKU-" + i));
+		skuFilter.rebuild();
+	}
+}
@@ -0,0 +1,204 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.model.LedgerWatermark;
+import com.ecommerce.inventoryservice.repository.InventoryBatchRepository;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.ecommerce.inventoryservice.repository.LedgerWatermarkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Each test writes through one ledger and recovers a second one from the same journal, as a restart after a crash
+class StockLedgerTest {
+
+	@TempDir
+	Path directory;
+
+	private final InventoryBatchRepository inventoryBatchRepository = mock(InventoryBatchRepository.class);
+	private final LedgerWatermarkRepository ledgerWatermarkRepository = mock(LedgerWatermarkRepository.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final List<StockLedger> ledgers = new ArrayList<>();
+	private long appliedSeq;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		when(ledgerWatermarkRepository.findById(anyString()))
+				.thenAnswer(invocation -> Optional.of(new LedgerWatermark("test", appliedSeq)));
+		when(ledgerWatermarkRepository.save(any(LedgerWatermark.class))).thenAnswer(invocation -> {
+			appliedSeq = invocation.<LedgerWatermark>getArgument(0).getAppliedSeq();
+			return invocation.getArgument(0);
+		});
+		doAnswer(invocation -> {
+			invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		ledgers.forEach(StockLedger::shutdown);
+	}
+
+	@Test
+	void recoversEntriesThatWereNeverFlushed() {
+		StockLedger ledger = recoveredLedger();
+		ledger.record("SKU-1", 5);
+		ledger.record("SKU-1", 3);
+		ledger.record("SKU-2", -2);
+
+		StockLedger recovered = recoveredLedger();
+
+		assertThat(recovered.pendingDelta("SKU-1")).isEqualTo(8);
+		assertThat(recovered.pendingDelta("SKU-2")).isEqualTo(-2);
+	}
+
+	@Test
+	void flushedEntriesAreNotReplayed() {
+		StockLedger ledger = recoveredLedger();
+		ledger.record("SKU-1", 5);
+		ledger.flush();
+		ledger.record("SKU-1", 2);
+
+		StockLedger recovered = recoveredLedger();
+
+		verify(inventoryBatchRepository).applyDeltas(Map.of("SKU-1", 5L));
+		assertThat(appliedSeq).isEqualTo(1);
+		assertThat(recovered.pendingDelta("SKU-1")).isEqualTo(2);
+	}
+
+	@Test
+	void discardedDeltasStayDiscarded() {
+		StockLedger ledger = recoveredLedger();
+		ledger.record("SKU-1", 5);
+		ledger.discard(List.of("SKU-1"));
+		ledger.record("SKU-1", 1);
+
+		assertThat(recoveredLedger().pendingDelta("SKU-1")).isEqualTo(1);
+	}
+
+	@Test
+	void aHeldDeltaIsCarriedPastTheWatermark() {
+		StockLedger ledger = recoveredLedger();
+		ledger.record("SKU-1", 5);
+		ledger.record("SKU-2", 3);
+		TransactionSynchronizationManager.initSynchronization();
+		ledger.discard(List.of("SKU-1"));
+
+		ledger.flush();
+
+		verify(inventoryBatchRepository).applyDeltas(Map.of("SKU-2", 3L));
+		assertThat(recoveredLedger().pendingDelta("SKU-1")).isEqualTo(5);
+
+		complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+		assertThat(ledger.pendingDelta("SKU-1")).isEqualTo(5);
+		assertThat(recoveredLedger().pendingDelta("SKU-1")).isEqualTo(5);
+	}
+
+	@Test
+	void aHeldDeltaIsDroppedOnlyOnCommit() {
+		StockLedger ledger = recoveredLedger();
+		ledger.record("SKU-1", 5);
+		ledger.record("SKU-2", 3);
+		TransactionSynchronizationManager.initSynchronization();
+		ledger.discard(List.of("SKU-1"));
+		ledger.flush();
+
+		complete(TransactionSynchronization.STATUS_COMMITTED);
+
+		assertThat(ledger.pendingDelta("SKU-1")).isZero();
+		assertThat(recoveredLedger().pendingDelta("SKU-1")).isZero();
+	}
+
+	@Test
+	void sequencesContinueAfterRecovery() {
+		StockLedger ledger = recoveredLedger();
+		ledger.record("SKU-1", 5);
+		ledger.flush();
+		ledger.record("SKU-1", 1);
+
+		StockLedger recovered = recoveredLedger();
+		recovered.record("SKU-1", 2);
+		recovered.flush();
+
+		List<Long> sequences = new ArrayList<>();
+		new LedgerJournal(directory, "test", 1 << 20, false).replay(0, entry -> sequences.add(entry.seq()));
+		assertThat(sequences).containsExactly(1L, 2L, 3L);
+		assertThat(appliedSeq).isEqualTo(3);
+		verify(inventoryBatchRepository).applyDeltas(Map.of("SKU-1", 3L));
+	}
+
+	@Test
+	void concurrentRestocksAreAllRecoveredWithFsync() throws Exception {
+		StockLedger ledger = recoveredLedger(true);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				futures.add(executor.submit(() -> IntStream.range(0, 250).forEach(i -> ledger.record("SKU-" + i % 5, 1))));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		StockLedger recovered = recoveredLedger(true);
+		for (int sku = 0; sku < 5; sku++) {
+			assertThat(recovered.pendingDelta("SKU-" + sku)).isEqualTo(400);
+		}
+	}
+
+	private StockLedger recoveredLedger() {
+		return recoveredLedger(false);
+	}
+
+	private StockLedger recoveredLedger(boolean fsync) {
+		StockLedger ledger = new StockLedger(inventoryBatchRepository, mock(InventoryRepository.class),
+				ledgerWatermarkRepository, mock(HotSkuStockService.class), mock(ApplicationEventPublisher.class),
+				transactionTemplate, new SimpleMeterRegistry(), true, directory.toString(), "test", 1 << 20, fsync,
+				"inventory-service");
+		ReflectionTestUtils.setField(ledger, "flushEntries", 10_000);
+		ReflectionTestUtils.setField(ledger, "retainedSegments", 10);
+		ledger.recover();
+		ledgers.add(ledger);
+		return ledger;
+	}
+
+	private static void complete(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+	}
+}
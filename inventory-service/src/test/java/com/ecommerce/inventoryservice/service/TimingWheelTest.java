@@ -0,0 +1,127 @@
+package com.ecommerce.inventoryservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+	@Test
+	void firesOnTheDeadlineTickAndNotBefore() {
+		TimingWheel<String> wheel = new TimingWheel<>(10, 1_000);
+		wheel.schedule("a", 1_050);
+
+		assertThat(wheel.advanceTo(1_049)).isEmpty();
+		assertThat(wheel.advanceTo(1_050)).containsExactly("a");
+		assertThat(wheel.advanceTo(2_000)).isEmpty();
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void deadlinesRoundUpToTheNextTick() {
+		TimingWheel<String> wheel = new TimingWheel<>(10, 0);
+		wheel.schedule("a", 41);
+
+		assertThat(wheel.advanceTo(49)).isEmpty();
+		assertThat(wheel.advanceTo(50)).containsExactly("a");
+	}
+
+	@Test
+	void cascadesAcrossEveryLevel() {
+		TimingWheel<Long> wheel = new TimingWheel<>(1, 0);
+		long[] deadlines = {63, 64, 65, 4_095, 4_096, 4_097, 262_143, 262_144, 300_000, 16_777_215};
+		for (long deadline : deadlines) {
+			wheel.schedule(deadline, deadline);
+		}
+
+		for (long deadline : deadlines) {
+			assertThat(wheel.advanceTo(deadline - 1)).isEmpty();
+			assertThat(wheel.advanceTo(deadline)).containsExactly(deadline);
+		}
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void deadlinesBeyondTheTopLevelAreParkedUntilInRange() {
+		TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+		long deadline = 3L * (1 << 24) + 12_345;
+		wheel.schedule("far", deadline);
+
+		assertThat(wheel.advanceTo(deadline - 1)).isEmpty();
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(wheel.advanceTo(deadline)).containsExactly("far");
+	}
+
+	@Test
+	void pastDeadlinesFireOnTheNextAdvance() {
+		TimingWheel<String> wheel = new TimingWheel<>(10, 1_000);
+		wheel.schedule("late", 500);
+		wheel.schedule("now", 1_000);
+
+		assertThat(wheel.size()).isEqualTo(2);
+		assertThat(wheel.advanceTo(1_000)).containsExactlyInAnyOrder("late", "now");
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void cancelledEntriesNeverFire() {
+		TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+		TimingWheel.Timeout<String> near = wheel.schedule("near", 10);
+		TimingWheel.Timeout<String> far = wheel.schedule("far", 100_000);
+		wheel.schedule("kept", 100_000);
+
+		wheel.cancel(near);
+		wheel.cancel(far);
+		wheel.cancel(far);
+
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(wheel.advanceTo(100_000)).containsExactly("kept");
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void matchesADeadlineScanForRandomSchedules() {
+		Random random = new Random(42);
+		TimingWheel<Integer> wheel = new TimingWheel<>(5, 0);
+		Map<Integer, Long> deadlines = new HashMap<>();
+		Map<Integer, TimingWheel.Timeout<Integer>> timeouts = new HashMap<>();
+		long now = 0;
+		int next = 0;
+
+		for (int round = 0; round < 2_000; round++) {
+			for (int i = random.nextInt(5); i > 0; i--) {
+				long deadline = now + random.nextInt(400_000) - 1_000;
+				deadlines.put(next, deadline);
+				timeouts.put(next, wheel.schedule(next, deadline));
+				next++;
+			}
+			if (!timeouts.isEmpty() && random.nextInt(4) == 0) {
+				Integer victim = new ArrayList<>(timeouts.keySet()).get(random.nextInt(timeouts.size()));
+				wheel.cancel(timeouts.remove(victim));
+				deadlines.remove(victim);
+			}
+
+			now += random.nextInt(500);
+			long nowTick = now / 5;
+			List<Integer> expected = new ArrayList<>();
+			deadlines.forEach((item, deadline) -> {
+				if (Math.floorDiv(deadline + 4, 5) <= nowTick) {
+					expected.add(item);
+				}
+			});
+			expected.forEach(item -> {
+				deadlines.remove(item);
+				timeouts.remove(item);
+			});
+
+			assertThat(wheel.advanceTo(now)).containsExactlyInAnyOrderElementsOf(expected);
+			assertThat(wheel.size()).isEqualTo(deadlines.size());
+		}
+	}
+}
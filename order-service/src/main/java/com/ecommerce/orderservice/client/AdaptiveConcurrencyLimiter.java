@@ -0,0 +1,78 @@
+package com.ecommerce.orderservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// AIMD concurrency limit driven by observed latency: the limit grows by one for every fast call made while the
+// limiter is at least half used, and shrinks by backoffRatio whenever a call is slow or fails with a timeout
+public class AdaptiveConcurrencyLimiter {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final long latencyThresholdNanos;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final Counter rejected;
+	private final Counter increased;
+	private final Counter decreased;
+	private volatile double limit;
+
+	public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+									  Duration latencyThreshold, MeterRegistry meterRegistry) {
+		this.limit = initialLimit;
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.backoffRatio = backoffRatio;
+		this.latencyThresholdNanos = latencyThreshold.toNanos();
+		this.rejected = Counter.builder("order.inventory.limiter.rejected").tag("name", name)
+				.description("Calls rejected because the adaptive concurrency limit was reached")
+				.register(meterRegistry);
+		this.increased = Counter.builder("order.inventory.limiter.changes").tag("name", name).tag("direction", "increase")
+				.register(meterRegistry);
+		this.decreased = Counter.builder("order.inventory.limiter.changes").tag("name", name).tag("direction", "decrease")
+				.register(meterRegistry);
+		Gauge.builder("order.inventory.limiter.limit", this, limiter -> limiter.limit).tag("name", name)
+				.description("Current adaptive concurrency limit")
+				.register(meterRegistry);
+		Gauge.builder("order.inventory.limiter.in-flight", inFlight, AtomicInteger::get).tag("name", name)
+				.register(meterRegistry);
+	}
+
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= (int) limit) {
+				rejected.increment();
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	public void release(long latencyNanos, boolean dropped) {
+		int current = inFlight.getAndDecrement();
+		synchronized (this) {
+			if (dropped || latencyNanos > latencyThresholdNanos) {
+				double reduced = Math.max(minLimit, limit * backoffRatio);
+				if (reduced < limit) {
+					limit = reduced;
+					decreased.increment();
+				}
+			} else if (current * 2 >= limit && limit < maxLimit) {
+				limit = Math.min(maxLimit, limit + 1);
+				increased.increment();
+			}
+		}
+	}
+
+	// Releases without feeding the limit, for calls that were cancelled before producing a sample
+	public void cancel() {
+		inFlight.decrementAndGet();
+	}
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.event.InventoryChangedEvent;
+import com.ecommerce.orderservice.request.ReservationItem;
+import com.ecommerce.orderservice.response.InventoryResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Local, eventually consistent view of SKU availability fed by inventory-service's inventory-changes topic.
+// It is only used to reject orders that clearly can't be fulfilled; inventory-service's reserve call stays
+// the authority for everything else.
+@Component
+@Slf4j
+public class InventoryAvailabilityCache {
+
+	private final InventoryClient inventoryClient;
+	private final InventoryLookupBatcher inventoryLookupBatcher;
+	private final Map<String, Availability> availabilityBySku = new ConcurrentHashMap<>();
+	private final AtomicLong lastEventReceivedAt = new AtomicLong();
+	private final Counter localRejections;
+	private volatile boolean ready;
+
+	@Value("${order.inventory-cache.enabled:true}")
+	private boolean enabled;
+
+	@Value("${order.inventory-cache.max-staleness:60s}")
+	private Duration maxStaleness;
+
+	@Value("${order.inventory-batch.enabled:true}")
+	private boolean lookupEnabled;
+
+	public InventoryAvailabilityCache(InventoryClient inventoryClient, InventoryLookupBatcher inventoryLookupBatcher,
+									  MeterRegistry meterRegistry) {
+		this.inventoryClient = inventoryClient;
+		this.inventoryLookupBatcher = inventoryLookupBatcher;
+		this.localRejections = Counter.builder("order.inventory.cache.rejections")
+				.description("Orders rejected from the local availability view without calling inventory-service")
+				.register(meterRegistry);
+		Gauge.builder("order.inventory.cache.size", availabilityBySku, Map::size)
+				.description("SKUs in the local availability view")
+				.register(meterRegistry);
+		Gauge.builder("order.inventory.cache.staleness", lastEventReceivedAt, this::secondsSince)
+				.description("Time since the last inventory change event was received")
+				.baseUnit("seconds")
+				.register(meterRegistry);
+		Gauge.builder("order.inventory.cache.ready", this, cache -> cache.ready ? 1 : 0)
+				.description("Whether the local availability view has been bootstrapped")
+				.register(meterRegistry);
+	}
+
+	// Cold start: the listener is already running, so snapshot entries never overwrite a newer change event
+	@EventListener(ApplicationReadyEvent.class)
+	public void bootstrap() {
+		if (!enabled) {
+			return;
+		}
+		inventoryClient.getAllInventory()
+				.filter(inventory -> inventory.getQuantity() != null)
+				.doOnNext(inventory -> availabilityBySku.putIfAbsent(inventory.getSkuCode(),
+						new Availability(inventory.getQuantity(), 0)))
+				.then()
+				.retryWhen(Retry.backoff(5, Duration.ofSeconds(2)))
+				.subscribe(done -> { }, e -> log.warn("Inventory availability bootstrap failed, local checks stay disabled", e),
+						() -> {
+							ready = true;
+							log.info("Inventory availability view bootstrapped with {} SKUs", availabilityBySku.size());
+						});
+	}
+
+	public void apply(InventoryChangedEvent event) {
+		lastEventReceivedAt.set(System.currentTimeMillis());
+		int quantity = event.isDeleted() || event.getQuantity() == null ? 0 : event.getQuantity();
+		availabilityBySku.merge(event.getSkuCode(), new Availability(quantity, event.getChangedAt()),
+				(current, update) -> update.changedAt() >= current.changedAt() ? update : current);
+	}
+
+	// SKUs the view can't answer for are looked up through the coalescing batcher, so concurrent orders share one
+	// request. That is every SKU before the bootstrap completed or with a stalled event stream, and otherwise only
+	// the SKUs missing from the view. SKUs unknown to inventory-service, or a failed lookup, defer to the reserve call
+	public Mono<Boolean> isClearlyOutOfStock(List<ReservationItem> items) {
+		boolean useView = enabled && ready && !isStale();
+		List<String> lookupSkuCodes = !lookupEnabled ? List.of() : items.stream()
+				.map(ReservationItem::getSkuCode)
+				.filter(skuCode -> !useView || !availabilityBySku.containsKey(skuCode))
+				.distinct()
+				.toList();
+		if (!useView && lookupSkuCodes.isEmpty()) {
+			return Mono.just(false);
+		}
+		return Flux.fromIterable(lookupSkuCodes)
+				.flatMap(inventoryLookupBatcher::lookup)
+				.filter(inventory -> inventory.getQuantity() != null)
+				.doOnNext(inventory -> {
+					if (useView) {
+						availabilityBySku.putIfAbsent(inventory.getSkuCode(), new Availability(inventory.getQuantity(), 0));
+					}
+				})
+				.collectMap(InventoryResponse::getSkuCode, InventoryResponse::getQuantity)
+				.map(lookedUp -> isOutOfStock(items, lookedUp, useView))
+				.onErrorReturn(false);
+	}
+
+	private boolean isOutOfStock(List<ReservationItem> items, Map<String, Integer> lookedUp, boolean useView) {
+		boolean outOfStock = items.stream().anyMatch(item -> {
+			Integer quantity = lookedUp.get(item.getSkuCode());
+			if (quantity == null && useView) {
+				Availability availability = availabilityBySku.get(item.getSkuCode());
+				quantity = availability != null ? availability.quantity() : null;
+			}
+			return quantity != null && quantity < item.getQuantity();
+		});
+		if (outOfStock) {
+			localRejections.increment();
+		}
+		return outOfStock;
+	}
+
+	private boolean isStale() {
+		long lastEvent = lastEventReceivedAt.get();
+		return lastEvent != 0 && System.currentTimeMillis() - lastEvent > maxStaleness.toMillis();
+	}
+
+	private double secondsSince(AtomicLong timestamp) {
+		long value = timestamp.get();
+		return value == 0 ? 0 : (System.currentTimeMillis() - value) / 1000.0;
+	}
+
+	private record Availability(int quantity, long changedAt) {
+	}
+}
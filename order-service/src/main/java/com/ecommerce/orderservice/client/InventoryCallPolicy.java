@@ -0,0 +1,112 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.exception.InventoryOverloadedException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.util.retry.Retry;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Guards every call to inventory-service: a per-call timeout, the adaptive concurrency limit and a semaphore
+// bulkhead on each attempt, and exponential backoff with jitter between attempts, scheduled on Reactor timers and
+// capped by a retry budget. Non-idempotent calls (reserve, release) are only retried when the request never reached
+// inventory-service.
+@Component
+public class InventoryCallPolicy {
+
+	private final Bulkhead bulkhead;
+	private final AdaptiveConcurrencyLimiter limiter;
+	private final RetryBudget retryBudget;
+	private final Counter retries;
+
+	@Value("${order.inventory-client.timeout:800ms}")
+	private Duration timeout;
+
+	@Value("${order.inventory-client.retry.max-attempts:3}")
+	private int maxAttempts;
+
+	@Value("${order.inventory-client.retry.min-backoff:50ms}")
+	private Duration minBackoff;
+
+	@Value("${order.inventory-client.retry.max-backoff:300ms}")
+	private Duration maxBackoff;
+
+	@Value("${order.inventory-client.retry.jitter:0.5}")
+	private double jitter;
+
+	public InventoryCallPolicy(BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry,
+							   @Value("${order.inventory-client.limiter.initial-limit:20}") int initialLimit,
+							   @Value("${order.inventory-client.limiter.min-limit:4}") int minLimit,
+							   @Value("${order.inventory-client.limiter.max-limit:200}") int maxLimit,
+							   @Value("${order.inventory-client.limiter.backoff-ratio:0.9}") double backoffRatio,
+							   @Value("${order.inventory-client.limiter.latency-threshold:250ms}") Duration latencyThreshold,
+							   @Value("${order.inventory-client.retry-budget.ratio:0.1}") double retryRatio,
+							   @Value("${order.inventory-client.retry-budget.max-tokens:20}") int retryMaxTokens) {
+		this.bulkhead = bulkheadRegistry.bulkhead("inventoryClient");
+		this.limiter = new AdaptiveConcurrencyLimiter("inventoryClient", initialLimit, minLimit, maxLimit, backoffRatio,
+				latencyThreshold, meterRegistry);
+		this.retryBudget = new RetryBudget(retryRatio, retryMaxTokens, meterRegistry);
+		this.retries = Counter.builder("order.inventory.retry.attempts")
+				.description("Retried inventory-service calls")
+				.register(meterRegistry);
+	}
+
+	public <T> Mono<T> apply(Supplier<Mono<T>> call, boolean idempotent) {
+		return Mono.defer(() -> attempt(call))
+				.doOnSuccess(result -> retryBudget.recordSuccess())
+				.retryWhen(Retry.backoff(maxAttempts - 1, minBackoff)
+						.maxBackoff(maxBackoff)
+						.jitter(jitter)
+						.filter(e -> isRetryable(e, idempotent) && retryBudget.canRetry())
+						.doBeforeRetry(signal -> {
+							retryBudget.withdraw();
+							retries.increment();
+						})
+						.onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+	}
+
+	private <T> Mono<T> attempt(Supplier<Mono<T>> call) {
+		if (!limiter.tryAcquire()) {
+			return Mono.error(new InventoryOverloadedException("Inventory client concurrency limit reached"));
+		}
+		long start = System.nanoTime();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		return call.get()
+				.timeout(timeout)
+				.transformDeferred(BulkheadOperator.of(bulkhead))
+				.doOnError(failure::set)
+				.doFinally(signal -> {
+					if (signal == SignalType.CANCEL) {
+						limiter.cancel();
+					} else {
+						limiter.release(System.nanoTime() - start, failure.get() instanceof TimeoutException);
+					}
+				});
+	}
+
+	private boolean isRetryable(Throwable e, boolean idempotent) {
+		if (e instanceof WebClientRequestException) {
+			Throwable cause = e.getCause();
+			return idempotent || cause instanceof ConnectException || cause instanceof UnknownHostException;
+		}
+		if (!idempotent) {
+			return false;
+		}
+		return e instanceof TimeoutException
+				|| e instanceof WebClientResponseException responseException && responseException.getStatusCode().is5xxServerError();
+	}
+}
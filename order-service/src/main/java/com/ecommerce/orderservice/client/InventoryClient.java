@@ -0,0 +1,83 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.events.codec.SkuAvailabilityCodec;
+import com.ecommerce.orderservice.request.ReservationItem;
+import com.ecommerce.orderservice.request.ReservationRequest;
+import com.ecommerce.orderservice.response.InventoryResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class InventoryClient {
+
+	private static final String INVENTORY_URL = "http://inventory-service/api/inventory";
+
+	private final WebClient.Builder webClientBuiler;
+	private final InventoryCallPolicy inventoryCallPolicy;
+
+	// Keyed by reservationId, so inventory-service treats a repeated reserve as the same hold and retries are safe
+	public Mono<Void> reserve(String reservationId, List<ReservationItem> items) {
+		return inventoryCallPolicy.apply(() -> webClientBuiler.build().post()
+				.uri(INVENTORY_URL + "/reserve")
+				.bodyValue(new ReservationRequest(reservationId, items))
+				.retrieve()
+				.onStatus(status -> status.value() == HttpStatus.CONFLICT.value(), response -> Mono.error(
+						new IllegalArgumentException("Product is not in stock , please try again later")))
+				.toBodilessEntity(), true)
+				.then();
+	}
+
+	// Releasing a hold that is already gone is a no-op, so this is retried like any idempotent call
+	public Mono<Void> release(String reservationId, List<ReservationItem> items) {
+		return inventoryCallPolicy.apply(() -> webClientBuiler.build().post()
+				.uri(INVENTORY_URL + "/release")
+				.bodyValue(new ReservationRequest(reservationId, items))
+				.retrieve()
+				.toBodilessEntity(), true)
+				.doOnError(e -> log.error("Failed to release reservation {} for items: {}", reservationId, items, e))
+				.then();
+	}
+
+	// NDJSON export: decoded one line at a time, so the snapshot is never held as a whole on either side
+	public Flux<InventoryResponse> getAllInventory() {
+		return webClientBuiler.build().get()
+				.uri(INVENTORY_URL + "/export")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.retrieve()
+				.bodyToFlux(InventoryResponse.class);
+	}
+
+	// SKU list in the body and the compact binary answer; SKUs inventory-service doesn't know are left out, as /check does
+	public Mono<List<InventoryResponse>> checkStock(List<String> skuCodes) {
+		return inventoryCallPolicy.apply(() -> webClientBuiler.build().post()
+				.uri(INVENTORY_URL + "/availability")
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.parseMediaType(SkuAvailabilityCodec.MEDIA_TYPE))
+				.bodyValue(skuCodes)
+				.retrieve()
+				.bodyToMono(byte[].class)
+				.defaultIfEmpty(new byte[0])
+				.map(this::decodeAvailability), true);
+	}
+
+	private List<InventoryResponse> decodeAvailability(byte[] payload) {
+		List<InventoryResponse> inventory = new ArrayList<>();
+		SkuAvailabilityCodec.decode(payload, (skuCode, quantity) -> {
+			if (quantity != null) {
+				inventory.add(new InventoryResponse(skuCode, quantity, quantity > 0));
+			}
+		});
+		return inventory;
+	}
+}
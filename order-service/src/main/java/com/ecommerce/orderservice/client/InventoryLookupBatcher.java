@@ -0,0 +1,112 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.response.InventoryResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Coalesces SKU lookups from concurrent callers: lookups arriving within one window (or until the batch is full)
+// share a single /api/inventory/availability request, and the same SKU requested twice in a window is fetched once
+@Component
+@Slf4j
+public class InventoryLookupBatcher {
+
+	private final InventoryClient inventoryClient;
+	private final DistributionSummary batchSize;
+	private final Timer batchWait;
+	private final Counter deduplicated;
+	private final Object lock = new Object();
+	private Map<String, PendingLookup> pending = new LinkedHashMap<>();
+
+	@Value("${order.inventory-batch.window:2ms}")
+	private Duration window;
+
+	@Value("${order.inventory-batch.max-size:100}")
+	private int maxSize;
+
+	public InventoryLookupBatcher(InventoryClient inventoryClient, MeterRegistry meterRegistry) {
+		this.inventoryClient = inventoryClient;
+		this.batchSize = DistributionSummary.builder("order.inventory.batch.size")
+				.description("Distinct SKUs per batched inventory lookup")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		this.batchWait = Timer.builder("order.inventory.batch.wait")
+				.description("Time a SKU lookup waited for its batch to be sent")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		this.deduplicated = Counter.builder("order.inventory.batch.deduplicated")
+				.description("SKU lookups served by a lookup already pending in the same window")
+				.register(meterRegistry);
+	}
+
+	// Completes empty when inventory-service has no row for the SKU
+	public Mono<InventoryResponse> lookup(String skuCode) {
+		PendingLookup lookup;
+		Map<String, PendingLookup> fullBatch = null;
+		synchronized (lock) {
+			lookup = pending.get(skuCode);
+			if (lookup != null) {
+				deduplicated.increment();
+			} else {
+				lookup = new PendingLookup(new CompletableFuture<>(), System.nanoTime());
+				pending.put(skuCode, lookup);
+				if (pending.size() == 1) {
+					Map<String, PendingLookup> batch = pending;
+					Schedulers.parallel().schedule(() -> flushIfCurrent(batch), window.toNanos(), TimeUnit.NANOSECONDS);
+				}
+				if (pending.size() >= maxSize) {
+					fullBatch = pending;
+					pending = new LinkedHashMap<>();
+				}
+			}
+		}
+		if (fullBatch != null) {
+			send(fullBatch);
+		}
+		return Mono.fromFuture(lookup.result().copy());
+	}
+
+	private void flushIfCurrent(Map<String, PendingLookup> batch) {
+		synchronized (lock) {
+			// Already sent because it filled up before the window closed
+			if (pending != batch) {
+				return;
+			}
+			pending = new LinkedHashMap<>();
+		}
+		send(batch);
+	}
+
+	private void send(Map<String, PendingLookup> batch) {
+		long sentAt = System.nanoTime();
+		batchSize.record(batch.size());
+		batch.values().forEach(lookup -> batchWait.record(sentAt - lookup.enqueuedAt(), TimeUnit.NANOSECONDS));
+
+		inventoryClient.checkStock(new ArrayList<>(batch.keySet()))
+				.map(inventory -> inventory.stream()
+						.collect(Collectors.toMap(InventoryResponse::getSkuCode, Function.identity(), (first, second) -> first)))
+				.subscribe(responses -> batch.forEach((skuCode, lookup) -> lookup.result().complete(responses.get(skuCode))),
+						e -> {
+							log.warn("Batched inventory lookup for {} SKUs failed", batch.size(), e);
+							batch.values().forEach(lookup -> lookup.result().completeExceptionally(e));
+						});
+	}
+
+	private record PendingLookup(CompletableFuture<InventoryResponse> result, long enqueuedAt) {
+	}
+}
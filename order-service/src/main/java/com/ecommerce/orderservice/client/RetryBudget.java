@@ -0,0 +1,43 @@
+package com.ecommerce.orderservice.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket that caps retries to a fraction of successful calls, so a struggling inventory-service sees at
+// most (1 + ratio) times its normal load from retries instead of maxAttempts times
+public class RetryBudget {
+
+	private static final long SCALE = 1000;
+
+	private final long depositPerSuccess;
+	private final long maxTokens;
+	private final AtomicLong tokens;
+	private final Counter denied;
+
+	public RetryBudget(double ratio, int maxTokens, MeterRegistry meterRegistry) {
+		this.depositPerSuccess = Math.round(ratio * SCALE);
+		this.maxTokens = maxTokens * SCALE;
+		this.tokens = new AtomicLong(this.maxTokens);
+		this.denied = Counter.builder("order.inventory.retry.budget.denied")
+				.description("Retries skipped because the retry budget was exhausted")
+				.register(meterRegistry);
+	}
+
+	public void recordSuccess() {
+		tokens.accumulateAndGet(depositPerSuccess, (current, deposit) -> Math.min(maxTokens, current + deposit));
+	}
+
+	public boolean canRetry() {
+		if (tokens.get() >= SCALE) {
+			return true;
+		}
+		denied.increment();
+		return false;
+	}
+
+	public void withdraw() {
+		tokens.addAndGet(-SCALE);
+	}
+}
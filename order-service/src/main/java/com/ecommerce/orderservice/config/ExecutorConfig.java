@@ -0,0 +1,40 @@
+package com.ecommerce.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+	@Value("${order.persistence.pool-size:10}")
+	private int poolSize;
+
+	@Value("${order.persistence.queue-capacity:500}")
+	private int queueCapacity;
+
+	// Dedicated, bounded pool for the blocking JPA step of order placement, sized to the connection pool
+	// so the reactive inventory call and the Kafka send never hold one of these threads.
+	@Bean
+	public ThreadPoolTaskExecutor orderPersistenceExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("order-persist-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.initialize();
+		return executor;
+	}
+
+	@Bean
+	public Scheduler orderPersistenceScheduler(ThreadPoolTaskExecutor orderPersistenceExecutor) {
+		return Schedulers.fromExecutor(orderPersistenceExecutor);
+	}
+}
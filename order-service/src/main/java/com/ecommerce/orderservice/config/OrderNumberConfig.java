@@ -0,0 +1,48 @@
+package com.ecommerce.orderservice.config;
+
+import com.ecommerce.orderservice.service.OrderNumberGenerator;
+import com.ecommerce.orderservice.service.SnowflakeOrderNumberGenerator;
+import com.ecommerce.orderservice.service.UlidOrderNumberGenerator;
+import com.netflix.appinfo.EurekaInstanceConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+@Configuration
+@Slf4j
+public class OrderNumberConfig {
+
+	@Bean
+	@ConditionalOnProperty(name = "order.number.generator", havingValue = "ulid", matchIfMissing = true)
+	public OrderNumberGenerator ulidOrderNumberGenerator() {
+		return new UlidOrderNumberGenerator();
+	}
+
+	// The node id defaults to a hash of the Eureka instance id. Hashes of different instances can collide, so set
+	// order.number.node-id explicitly per instance wherever uniqueness across a large fleet matters
+	@Bean
+	@ConditionalOnProperty(name = "order.number.generator", havingValue = "snowflake")
+	public OrderNumberGenerator snowflakeOrderNumberGenerator(@Value("${order.number.node-id:-1}") int nodeId,
+															  ObjectProvider<EurekaInstanceConfig> eurekaInstanceConfig) {
+		if (nodeId < 0) {
+			String instanceId = eurekaInstanceConfig.getIfAvailable() != null
+					? eurekaInstanceConfig.getIfAvailable().getInstanceId()
+					: UUID.randomUUID().toString();
+			nodeId = Math.floorMod(instanceId.hashCode(), SnowflakeOrderNumberGenerator.MAX_NODE_ID + 1);
+			log.info("Using order number node id {} derived from instance {}", nodeId, instanceId);
+		}
+		return new SnowflakeOrderNumberGenerator(nodeId);
+	}
+
+	// Previous behaviour, kept for deployments that rely on UUID-shaped order numbers
+	@Bean
+	@ConditionalOnProperty(name = "order.number.generator", havingValue = "uuid")
+	public OrderNumberGenerator uuidOrderNumberGenerator() {
+		return () -> UUID.randomUUID().toString();
+	}
+}
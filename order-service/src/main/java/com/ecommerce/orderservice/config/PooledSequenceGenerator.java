@@ -0,0 +1,37 @@
+package com.ecommerce.orderservice.config;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+// Sequence generator whose allocation size comes from configuration instead of the mapping, so the
+// pooled optimizer hands out a block of ids per sequence round trip (emulated by a table on MySQL)
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+
+	public static final String ALLOCATION_SIZE_SETTING = "order.id.allocation_size";
+	public static final String INITIAL_VALUE_SETTING = "order.id.initial_value";
+
+	@Override
+	public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+		ConfigurationService configurationService = serviceRegistry.getService(ConfigurationService.class);
+		Properties pooledParameters = new Properties();
+		pooledParameters.putAll(parameters);
+		copySetting(configurationService, ALLOCATION_SIZE_SETTING, OptimizableGenerator.INCREMENT_PARAM, pooledParameters);
+		copySetting(configurationService, INITIAL_VALUE_SETTING, OptimizableGenerator.INITIAL_PARAM, pooledParameters);
+		pooledParameters.putIfAbsent(OptimizableGenerator.OPT_PARAM, "pooled");
+		super.configure(type, pooledParameters, serviceRegistry);
+	}
+
+	private void copySetting(ConfigurationService configurationService, String setting, String parameter,
+							 Properties parameters) {
+		Object value = configurationService.getSettings().get(setting);
+		if (value != null) {
+			parameters.put(parameter, value.toString());
+		}
+	}
+}
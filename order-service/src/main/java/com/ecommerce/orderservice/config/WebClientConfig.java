@@ -10,8 +10,8 @@ public class WebClientConfig {
 
 	@Bean
 	@LoadBalanced
-	public WebClient webClientBuiler() {
-		return WebClient.builder().build();
+	public WebClient.Builder webClientBuiler() {
+		return WebClient.builder();
 	}
 
 }
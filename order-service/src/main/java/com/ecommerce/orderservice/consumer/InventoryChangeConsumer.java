@@ -0,0 +1,23 @@
+package com.ecommerce.orderservice.consumer;
+
+import com.ecommerce.orderservice.client.InventoryAvailabilityCache;
+import com.ecommerce.orderservice.event.InventoryChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class InventoryChangeConsumer {
+
+	private final InventoryAvailabilityCache inventoryAvailabilityCache;
+
+	// Every order-service instance keeps its own view, so each one reads every partition. They are assigned directly
+	// rather than through a consumer group, so restarts leave no abandoned groups behind
+	@KafkaListener(topicPartitions = @TopicPartition(topic = "inventory-changes",
+			partitions = "#{@partitionFinder.partitions('inventory-changes')}"))
+	public void handleInventoryChange(InventoryChangedEvent inventoryChangedEvent) {
+		inventoryAvailabilityCache.apply(inventoryChangedEvent);
+	}
+}
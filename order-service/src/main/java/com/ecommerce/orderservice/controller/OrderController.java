@@ -1,14 +1,21 @@
 package com.ecommerce.orderservice.controller;
 
 import com.ecommerce.orderservice.request.OrderRequest;
+import com.ecommerce.orderservice.response.OrderAcceptedResponse;
+import com.ecommerce.orderservice.response.OrderPageResponse;
+import com.ecommerce.orderservice.response.OrderResponse;
 import com.ecommerce.orderservice.service.OrderService;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
@@ -18,16 +25,55 @@ public class OrderController {
 	@Autowired
 	private OrderService orderService;
 
+	// This controller's proxy, so calls from acceptOrder still go through the circuit breaker and time limiter
+	@Lazy
+	@Autowired
+	private OrderController self;
+
+	@Value("${order.acceptance.async-enabled:false}")
+	private boolean asyncAcceptanceEnabled;
+
 	@PostMapping
 	@ResponseStatus(HttpStatus.CREATED)
 	@CircuitBreaker(name="inventory",fallbackMethod = "fallbackMethod")
 	@TimeLimiter(name ="inventory")
-	@Retry(name="inventory")
-	public CompletableFuture<String> placeOrder(@RequestBody OrderRequest orderRequest) {
-		return CompletableFuture.supplyAsync(()-> orderService.placeOrder(orderRequest));
+	public CompletableFuture<String> placeOrder(@RequestBody @Valid OrderRequest orderRequest,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+		return orderService.placeOrder(orderRequest, idempotencyKey);
+	}
+
+	public CompletableFuture<String> fallbackMethod(OrderRequest orderRequest, String idempotencyKey, RuntimeException runtimeException){
+		return CompletableFuture.completedFuture("Oops! Something went wrong, please order after some time!");
+	}
+
+	// Opt-in asynchronous acceptance: the order is queued durably and 202 points at its status resource
+	@PostMapping(headers = "Prefer=respond-async")
+	public CompletableFuture<ResponseEntity<OrderAcceptedResponse>> acceptOrder(@RequestBody @Valid OrderRequest orderRequest,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+		if (!asyncAcceptanceEnabled) {
+			return self.placeOrder(orderRequest, idempotencyKey)
+					.thenApply(message -> ResponseEntity.status(HttpStatus.CREATED).body(new OrderAcceptedResponse(null, null, message)));
+		}
+		return orderService.acceptOrder(orderRequest, idempotencyKey)
+				.thenApply(orderNumber -> {
+					URI statusUri = URI.create("/api/order/" + orderNumber);
+					return ResponseEntity.accepted()
+							.location(statusUri)
+							.body(new OrderAcceptedResponse(orderNumber, statusUri.toString(), "Order accepted"));
+				});
+	}
+
+	@GetMapping("/{orderNumber}")
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<OrderResponse> getOrder(@PathVariable String orderNumber) {
+		return ResponseEntity.ok(orderService.getOrder(orderNumber));
 	}
 
-	public CompletableFuture<String> fallbackMethod(OrderRequest orderRequest, RuntimeException runtimeException){
-		return  CompletableFuture.supplyAsync(()-> "Oops! Something went wrong, please order after some time!");
+	@GetMapping
+	@ResponseStatus(HttpStatus.OK)
+	public ResponseEntity<OrderPageResponse> getOrdersByCustomer(@RequestParam String customerId,
+			@RequestParam(required = false) String cursor,
+			@RequestParam(defaultValue = "20") int size) {
+		return ResponseEntity.ok(orderService.getOrdersByCustomer(customerId, cursor, size));
 	}
 }
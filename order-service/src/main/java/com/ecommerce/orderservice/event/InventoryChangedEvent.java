@@ -7,6 +7,9 @@ import lombok.NoArgsConstructor;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class OrderPlacedEvent {
-    private String orderNumber;
+public class InventoryChangedEvent {
+    private String skuCode;
+    private Integer quantity;
+    private boolean deleted;
+    private long changedAt;
 }
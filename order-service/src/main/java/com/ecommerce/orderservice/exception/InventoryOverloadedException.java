@@ -0,0 +1,7 @@
+package com.ecommerce.orderservice.exception;
+
+public class InventoryOverloadedException extends RuntimeException {
+	public InventoryOverloadedException(String message) {
+		super(message);
+	}
+}
@@ -1,15 +1,24 @@
 package com.ecommerce.orderservice.model;
 
+import com.ecommerce.orderservice.config.PooledSequenceGenerator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
+import java.time.Instant;
 import java.util.List;
 
 @Entity
-@Table(name="t_order")
+@Table(name="t_order", indexes = {
+		@Index(name = "uk_order_order_number", columnList = "order_number", unique = true),
+		@Index(name = "idx_order_customer_created", columnList = "customer_id, created_at, id"),
+		@Index(name = "idx_order_status_created", columnList = "status, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,11 +26,25 @@ import java.util.List;
 public class Order {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(generator = "t_order_seq")
+	@GenericGenerator(name = "t_order_seq", type = PooledSequenceGenerator.class,
+			parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "t_order_seq"))
 	private Long id;
 
+	// ASCII keeps the unique index at one byte per char; 36 still fits legacy UUID order numbers. Existing tables
+	// need db/migration/order_number_ascii.sql, since ddl-auto=update does not alter the column
+	@Column(length = 36, columnDefinition = "varchar(36) character set ascii")
 	private String orderNumber;
 
-	@OneToMany(cascade = CascadeType.ALL)
+	private String customerId;
+
+	@Enumerated(EnumType.STRING)
+	private OrderStatus status;
+
+	private Instant createdAt;
+
+	private Instant statusChangedAt;
+
+	@OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
 	private List<OrderLineItems> orderLineItemsList;
 }
@@ -1,15 +1,19 @@
 package com.ecommerce.orderservice.model;
 
+import com.ecommerce.orderservice.config.PooledSequenceGenerator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name="t_order_line_items")
+@Table(name="t_order_line_items", indexes = @Index(name = "idx_order_line_items_order_id", columnList = "order_id"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -17,9 +21,15 @@ import java.math.BigDecimal;
 public class OrderLineItems {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(generator = "t_order_line_items_seq")
+	@GenericGenerator(name = "t_order_line_items_seq", type = PooledSequenceGenerator.class,
+			parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "t_order_line_items_seq"))
 	private Long id;
 	private String skuCode;
 	private BigDecimal price;
 	private Integer quantity;
+
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "order_id")
+	private Order order;
 }
@@ -0,0 +1,5 @@
+package com.ecommerce.orderservice.model;
+
+public enum OrderStatus {
+	PENDING, PROCESSING, PLACED, REJECTED
+}
@@ -1,10 +1,52 @@
 package com.ecommerce.orderservice.repository;
 
 import com.ecommerce.orderservice.model.Order;
+import com.ecommerce.orderservice.model.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+	@Query("select o from Order o left join fetch o.orderLineItemsList where o.orderNumber = :orderNumber")
+	Optional<Order> findWithLineItemsByOrderNumber(@Param("orderNumber") String orderNumber);
+
+	// Keyset pages only read idx_order_customer_created; the orders themselves are fetched by id afterwards
+	@Query("select o.id from Order o where o.customerId = :customerId order by o.createdAt desc, o.id desc")
+	List<Long> findFirstPageIds(@Param("customerId") String customerId, Pageable pageable);
+
+	@Query("select o.id from Order o where o.customerId = :customerId"
+			+ " and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))"
+			+ " order by o.createdAt desc, o.id desc")
+	List<Long> findPageIdsAfter(@Param("customerId") String customerId, @Param("createdAt") Instant createdAt,
+								@Param("id") Long id, Pageable pageable);
+
+	@Query("select distinct o from Order o left join fetch o.orderLineItemsList where o.id in :ids"
+			+ " order by o.createdAt desc, o.id desc")
+	List<Order> findWithLineItemsByIdIn(@Param("ids") List<Long> ids);
+
+	// Claims the oldest accepted orders; SKIP LOCKED lets every order-service instance run workers. Returns ids so
+	// the caller can load the orders with their line items in one more query
+	@Query(value = "SELECT id FROM t_order WHERE status = 'PENDING' ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+			nativeQuery = true)
+	List<Long> lockPending(@Param("limit") int limit);
+
+	long countByStatus(OrderStatus status);
+
+	@Modifying
+	@Query("update Order o set o.status = :status, o.statusChangedAt = :changedAt where o.id = :id")
+	int updateStatus(@Param("id") Long id, @Param("status") OrderStatus status, @Param("changedAt") Instant changedAt);
+
+	@Modifying
+	@Query("update Order o set o.status = com.ecommerce.orderservice.model.OrderStatus.PENDING, o.statusChangedAt = :now"
+			+ " where o.status = com.ecommerce.orderservice.model.OrderStatus.PROCESSING and o.statusChangedAt < :cutoff")
+	int requeueStale(@Param("cutoff") Instant cutoff, @Param("now") Instant now);
 }
@@ -0,0 +1,17 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+	// SKIP LOCKED lets several order-service instances relay disjoint batches concurrently
+	@Query(value = "SELECT * FROM t_order_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
@@ -1,5 +1,8 @@
 package com.ecommerce.orderservice.request;
 
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,7 +17,10 @@ import java.math.BigDecimal;
 public class OrderLineItemsDto {
 
 	private Long id;
+	@NotBlank(message = "SKU code cannot be blank")
 	private String skuCode;
 	private BigDecimal price;
+	@NotNull(message = "Quantity cannot be null")
+	@Positive(message = "Quantity must be greater than zero")
 	private Integer quantity;
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.ecommerce.orderservice.request;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,5 +13,8 @@ import java.util.List;
 @NoArgsConstructor
 public class OrderRequest {
 
-	private List<OrderLineItemsDto> OrderLineItemsDtoList;
+	private String customerId;
+
+	@NotEmpty(message = "Order line items cannot be empty")
+	private List<@Valid OrderLineItemsDto> OrderLineItemsDtoList;
 }
@@ -0,0 +1,14 @@
+package com.ecommerce.orderservice.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationItem {
+
+	private String skuCode;
+	private Integer quantity;
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.orderservice.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationRequest {
+
+	private String reservationId;
+
+	private List<ReservationItem> items;
+}
@@ -12,5 +12,6 @@ import lombok.NoArgsConstructor;
 public class InventoryResponse {
 
 	private String skuCode;
+	private Integer quantity;
 	private boolean isInStock;
 }
@@ -0,0 +1,15 @@
+package com.ecommerce.orderservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderAcceptedResponse {
+
+	private String orderNumber;
+	private String statusUrl;
+	private String message;
+}
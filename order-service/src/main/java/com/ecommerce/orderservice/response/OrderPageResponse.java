@@ -0,0 +1,18 @@
+package com.ecommerce.orderservice.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderPageResponse {
+
+	private List<OrderResponse> orders;
+	private String nextCursor;
+}
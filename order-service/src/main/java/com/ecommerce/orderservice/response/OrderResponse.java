@@ -0,0 +1,24 @@
+package com.ecommerce.orderservice.response;
+
+import com.ecommerce.orderservice.model.OrderStatus;
+import com.ecommerce.orderservice.request.OrderLineItemsDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderResponse {
+
+	private String orderNumber;
+	private String customerId;
+	private OrderStatus status;
+	private Instant createdAt;
+	private List<OrderLineItemsDto> orderLineItemsDtoList;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.orderservice.service;
+
+// Crockford base32 with a fixed width per value, so the lexicographic order of the encoded strings matches the
+// numeric order of the values they encode
+final class Base32 {
+
+	private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+	private Base32() {
+	}
+
+	// Writes the low (5 * length) bits of value into chars[offset, offset + length), most significant first
+	static void encode(long value, char[] chars, int offset, int length) {
+		for (int i = offset + length - 1; i >= offset; i--) {
+			chars[i] = ALPHABET[(int) (value & 0x1F)];
+			value >>>= 5;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.orderservice.model.IdempotencyRecord;
+import com.ecommerce.orderservice.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+
+	private final IdempotencyRecordRepository idempotencyRecordRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final Scheduler orderPersistenceScheduler;
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	@Value("${order.idempotency.ttl:24h}")
+	private Duration ttl;
+
+	public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+							  TransactionTemplate transactionTemplate,
+							  Scheduler orderPersistenceScheduler) {
+		this.idempotencyRecordRepository = idempotencyRecordRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.orderPersistenceScheduler = orderPersistenceScheduler;
+	}
+
+	// Concurrent requests with the same key share one execution; a completed one is answered from memory, or
+	// from t_order_idempotency_key when another instance (or an earlier process) handled it. Failed executions
+	// are forgotten so a retry runs again.
+	public CompletableFuture<String> execute(String idempotencyKey, Supplier<CompletableFuture<String>> action) {
+		long now = System.currentTimeMillis();
+		Entry entry = new Entry(new CompletableFuture<>(), now + ttl.toMillis());
+		Entry current = entries.compute(idempotencyKey,
+				(key, existing) -> existing == null || existing.isExpired(now) ? entry : existing);
+		if (current != entry) {
+			log.info("Replaying result for idempotency key: {}", idempotencyKey);
+			return current.result().copy();
+		}
+
+		findStoredResponse(idempotencyKey)
+				.switchIfEmpty(Mono.fromFuture(action))
+				.onErrorResume(DataIntegrityViolationException.class, e -> findStoredResponse(idempotencyKey)
+						.switchIfEmpty(Mono.error(e)))
+				.subscribe(entry.result()::complete, e -> {
+					entries.remove(idempotencyKey, entry);
+					entry.result().completeExceptionally(e);
+				});
+		// Callers get a copy so a TimeLimiter cancelling its future doesn't cancel the shared execution
+		return entry.result().copy();
+	}
+
+	public IdempotencyRecord toRecord(String idempotencyKey, String orderNumber, String response) {
+		return IdempotencyRecord.builder()
+				.idempotencyKey(idempotencyKey)
+				.orderNumber(orderNumber)
+				.response(response)
+				.createdAt(Instant.now())
+				.build();
+	}
+
+	@Scheduled(fixedDelayString = "${order.idempotency.sweep-interval-ms:60000}")
+	public void evictExpired() {
+		long now = System.currentTimeMillis();
+		entries.values().removeIf(entry -> entry.isExpired(now) && entry.result().isDone());
+		Integer deleted = transactionTemplate.execute(
+				status -> idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(ttl)));
+		log.debug("Evicted {} expired idempotency records", deleted);
+	}
+
+	private Mono<String> findStoredResponse(String idempotencyKey) {
+		return Mono.fromCallable(() -> idempotencyRecordRepository.findByIdempotencyKey(idempotencyKey)
+						.map(IdempotencyRecord::getResponse)
+						.orElse(null))
+				.subscribeOn(orderPersistenceScheduler);
+	}
+
+	private record Entry(CompletableFuture<String> result, long expiresAt) {
+
+		boolean isExpired(long now) {
+			return now >= expiresAt;
+		}
+	}
+}
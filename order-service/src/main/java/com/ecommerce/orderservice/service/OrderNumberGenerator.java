@@ -0,0 +1,8 @@
+package com.ecommerce.orderservice.service;
+
+// Produces the public order number. Implementations must be thread-safe and should be time-ordered, so that new
+// orders land at the right-hand edge of uk_order_order_number instead of at random pages
+public interface OrderNumberGenerator {
+
+	String nextOrderNumber();
+}
@@ -1,59 +1,202 @@
 package com.ecommerce.orderservice.service;
 
-import com.ecommerce.orderservice.event.OrderPlacedEvent;
-import jakarta.transaction.Transactional;
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.orderservice.client.InventoryAvailabilityCache;
+import com.ecommerce.orderservice.client.InventoryClient;
+import com.ecommerce.orderservice.exception.OrderNotFoundException;
 import com.ecommerce.orderservice.model.Order;
 import com.ecommerce.orderservice.model.OrderLineItems;
+import com.ecommerce.orderservice.model.OrderStatus;
+import com.ecommerce.orderservice.model.OutboxEvent;
+import com.ecommerce.orderservice.repository.IdempotencyRecordRepository;
 import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.OutboxEventRepository;
 import com.ecommerce.orderservice.request.OrderLineItemsDto;
 import com.ecommerce.orderservice.request.OrderRequest;
-import com.ecommerce.orderservice.response.InventoryResponse;
+import com.ecommerce.orderservice.request.ReservationItem;
+import com.ecommerce.orderservice.response.OrderPageResponse;
+import com.ecommerce.orderservice.response.OrderResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
-@Transactional
 public class OrderService {
 
+	private static final String ORDER_PLACED_RESPONSE = "Order Placed successfully";
+	private static final String ACCEPTANCE_KEY_PREFIX = "accept:";
+	private static final int MAX_PAGE_SIZE = 100;
+
 	@Autowired
 	private OrderRepository orderRepository;
 
 	@Autowired
-	private WebClient.Builder webClientBuiler;
+	private InventoryClient inventoryClient;
 
-	private KafkaTemplate kafkaTemplate;
-	public String placeOrder(OrderRequest orderRequest) {
-		Order order = new Order();
-		order.setOrderNumber(UUID.randomUUID().toString());
+	@Autowired
+	private InventoryAvailabilityCache inventoryAvailabilityCache;
 
-		List<OrderLineItems> orderLineItems = orderRequest.getOrderLineItemsDtoList().stream().map(this::mapToDto)
-				.toList();
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
 
-		order.setOrderLineItemsList(orderLineItems);
+	@Autowired
+	private IdempotencyRecordRepository idempotencyRecordRepository;
 
-		List<String> skuCodes = order.getOrderLineItemsList().stream().map(OrderLineItems::getSkuCode).toList();
+	@Autowired
+	private IdempotencyService idempotencyService;
 
-		// Call Inventory service , and place order if product is in stock
-		InventoryResponse[] inventoryResponseArray = webClientBuiler.build().get()
-				.uri("http://inventory-service/api/inventory",uriBuilder -> uriBuilder.queryParam("skucode", skuCodes).build())
-				.retrieve().bodyToMono(InventoryResponse[].class).block();
+	@Autowired
+	private OrderNumberGenerator orderNumberGenerator;
 
-		boolean allProductsInStock = Arrays.stream(inventoryResponseArray).allMatch(InventoryResponse::isInStock);
+	@Autowired
+	private ObjectMapper objectMapper;
 
-		if (allProductsInStock) {
-			orderRepository.save(order);
-			kafkaTemplate.send("notificationTopic", new OrderPlacedEvent(order.getOrderNumber()));
-			return "Order Placed successfully";
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private Scheduler orderPersistenceScheduler;
+
+	public CompletableFuture<String> placeOrder(OrderRequest orderRequest, String idempotencyKey) {
+		if (idempotencyKey == null || idempotencyKey.isBlank()) {
+			return doPlaceOrder(orderRequest, null);
+		}
+		return idempotencyService.execute(idempotencyKey, () -> doPlaceOrder(orderRequest, idempotencyKey));
+	}
+
+	private CompletableFuture<String> doPlaceOrder(OrderRequest orderRequest, String idempotencyKey) {
+		Order order = buildOrder(orderRequest, OrderStatus.PLACED);
+		List<ReservationItem> reservationItems = toReservationItems(order);
+
+		// Reserve the requested quantities in Inventory service under the order number, and release them again if the
+		// order can't be saved. The hold is confirmed by inventory-service when it sees the OrderPlacedEvent
+		return inventoryAvailabilityCache.isClearlyOutOfStock(reservationItems)
+				.flatMap(outOfStock -> outOfStock
+						? Mono.<Void>error(new IllegalArgumentException("Product is not in stock , please try again later"))
+						: inventoryClient.reserve(order.getOrderNumber(), reservationItems))
+				.then(Mono.defer(() -> saveOrder(order, idempotencyKey)
+						.onErrorResume(e -> inventoryClient.release(order.getOrderNumber(), reservationItems).onErrorComplete()
+								.then(Mono.error(e)))))
+				.thenReturn(ORDER_PLACED_RESPONSE)
+				.toFuture();
+	}
+
+	// Asynchronous acceptance: the order is stored as PENDING and OrderWorker takes it from there. Completes with
+	// the order number, which the caller polls through GET /api/order/{orderNumber}
+	public CompletableFuture<String> acceptOrder(OrderRequest orderRequest, String idempotencyKey) {
+		if (idempotencyKey == null || idempotencyKey.isBlank()) {
+			return doAcceptOrder(orderRequest, null);
+		}
+		String acceptanceKey = ACCEPTANCE_KEY_PREFIX + idempotencyKey;
+		return idempotencyService.execute(acceptanceKey, () -> doAcceptOrder(orderRequest, acceptanceKey));
+	}
+
+	private CompletableFuture<String> doAcceptOrder(OrderRequest orderRequest, String idempotencyKey) {
+		Order order = buildOrder(orderRequest, OrderStatus.PENDING);
+		return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+					Order savedOrder = orderRepository.save(order);
+					if (idempotencyKey != null) {
+						idempotencyRecordRepository.saveAndFlush(idempotencyService.toRecord(idempotencyKey,
+								savedOrder.getOrderNumber(), savedOrder.getOrderNumber()));
+					}
+					return savedOrder.getOrderNumber();
+				}))
+				.subscribeOn(orderPersistenceScheduler)
+				.toFuture();
+	}
+
+	@Transactional(readOnly = true)
+	public OrderResponse getOrder(String orderNumber) {
+		return orderRepository.findWithLineItemsByOrderNumber(orderNumber)
+				.map(this::mapToResponse)
+				.orElseThrow(() -> new OrderNotFoundException("Order not found with order number: " + orderNumber));
+	}
+
+	// Seek pagination on (customerId, createdAt, id): each page starts right after the cursor of the previous one,
+	// so the cost of a page doesn't grow with how far back the customer is browsing
+	@Transactional(readOnly = true)
+	public OrderPageResponse getOrdersByCustomer(String customerId, String cursor, int size) {
+		PageRequest limit = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+		List<Long> ids;
+		if (cursor == null || cursor.isBlank()) {
+			ids = orderRepository.findFirstPageIds(customerId, limit);
 		} else {
-			throw new IllegalArgumentException("Product is not in stock , please try again later");
+			String[] position = decodeCursor(cursor);
+			ids = orderRepository.findPageIdsAfter(customerId, Instant.parse(position[0]), Long.valueOf(position[1]), limit);
+		}
+
+		List<Order> orders = ids.isEmpty() ? List.of() : orderRepository.findWithLineItemsByIdIn(ids);
+		String nextCursor = orders.size() < limit.getPageSize() ? null : encodeCursor(orders.get(orders.size() - 1));
+		return OrderPageResponse.builder()
+				.orders(orders.stream().map(this::mapToResponse).toList())
+				.nextCursor(nextCursor)
+				.build();
+	}
+
+	// JPA is blocking, so the save runs in its own transaction on the bounded persistence pool. The
+	// OrderPlacedEvent is written to the outbox in the same transaction and published later by OutboxRelay.
+	// The idempotency key is stored with the order, so a duplicate that got this far fails on its unique index
+	private Mono<Order> saveOrder(Order order, String idempotencyKey) {
+		return Mono.fromCallable(() -> transactionTemplate.execute(status -> {
+					Order savedOrder = orderRepository.save(order);
+					outboxEventRepository.save(toOutboxEvent(new OrderPlacedEvent(savedOrder.getOrderNumber())));
+					if (idempotencyKey != null) {
+						idempotencyRecordRepository.saveAndFlush(idempotencyService.toRecord(idempotencyKey,
+								savedOrder.getOrderNumber(), ORDER_PLACED_RESPONSE));
+					}
+					return savedOrder;
+				}))
+				.subscribeOn(orderPersistenceScheduler);
+	}
+
+	OutboxEvent toOutboxEvent(OrderPlacedEvent orderPlacedEvent) {
+		try {
+			return OutboxEvent.builder()
+					.topic("notificationTopic")
+					.eventKey(orderPlacedEvent.getOrderNumber())
+					.payload(objectMapper.writeValueAsString(orderPlacedEvent))
+					.createdAt(Instant.now())
+					.build();
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Unable to serialize OrderPlacedEvent " + orderPlacedEvent.getOrderNumber(), e);
 		}
 	}
+
+	private Order buildOrder(OrderRequest orderRequest, OrderStatus status) {
+		Instant now = Instant.now();
+		Order order = new Order();
+		order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
+		order.setCustomerId(orderRequest.getCustomerId());
+		order.setStatus(status);
+		order.setCreatedAt(now);
+		order.setStatusChangedAt(now);
+
+		List<OrderLineItems> orderLineItems = orderRequest.getOrderLineItemsDtoList().stream().map(this::mapToDto)
+				.toList();
+		orderLineItems.forEach(orderLineItem -> orderLineItem.setOrder(order));
+
+		order.setOrderLineItemsList(orderLineItems);
+		return order;
+	}
+
+	List<ReservationItem> toReservationItems(Order order) {
+		return order.getOrderLineItemsList().stream()
+				.map(item -> new ReservationItem(item.getSkuCode(), item.getQuantity()))
+				.toList();
+	}
+
 	private OrderLineItems mapToDto(OrderLineItemsDto orderLineItemsDto) {
 		OrderLineItems orderLineItems= new OrderLineItems();
 		orderLineItems.setPrice(orderLineItemsDto.getPrice());
@@ -62,4 +205,32 @@ public class OrderService {
 		return orderLineItems;
 	}
 
+	private OrderResponse mapToResponse(Order order) {
+		return OrderResponse.builder()
+				.orderNumber(order.getOrderNumber())
+				.customerId(order.getCustomerId())
+				.status(order.getStatus())
+				.createdAt(order.getCreatedAt())
+				.orderLineItemsDtoList(order.getOrderLineItemsList().stream()
+						.map(item -> new OrderLineItemsDto(item.getId(), item.getSkuCode(), item.getPrice(), item.getQuantity()))
+						.toList())
+				.build();
+	}
+
+	private String encodeCursor(Order order) {
+		String position = order.getCreatedAt() + "|" + order.getId();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String[] decodeCursor(String cursor) {
+		try {
+			String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+			Instant.parse(position[0]);
+			Long.parseLong(position[1]);
+			return position;
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + cursor);
+		}
+	}
+
 }
@@ -0,0 +1,163 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.orderservice.client.InventoryClient;
+import com.ecommerce.orderservice.model.Order;
+import com.ecommerce.orderservice.model.OrderStatus;
+import com.ecommerce.orderservice.repository.OrderRepository;
+import com.ecommerce.orderservice.repository.OutboxEventRepository;
+import com.ecommerce.orderservice.request.ReservationItem;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains orders accepted asynchronously. At most order.worker.concurrency orders are in flight per instance; the
+// poller only claims as many PENDING orders as there are free slots, so a burst waits in t_order instead of piling
+// up in memory or on the database.
+@Service
+@Slf4j
+public class OrderWorker {
+
+	private final OrderRepository orderRepository;
+	private final OutboxEventRepository outboxEventRepository;
+	private final OrderService orderService;
+	private final InventoryClient inventoryClient;
+	private final TransactionTemplate transactionTemplate;
+	private final Scheduler orderPersistenceScheduler;
+	private final Semaphore slots;
+	private final Timer timeInQueue;
+	private final AtomicLong queueDepth = new AtomicLong();
+
+	@Value("${order.acceptance.async-enabled:false}")
+	private boolean asyncEnabled;
+
+	@Value("${order.worker.claim-timeout:5m}")
+	private Duration claimTimeout;
+
+	public OrderWorker(OrderRepository orderRepository,
+					   OutboxEventRepository outboxEventRepository,
+					   OrderService orderService,
+					   InventoryClient inventoryClient,
+					   TransactionTemplate transactionTemplate,
+					   Scheduler orderPersistenceScheduler,
+					   MeterRegistry meterRegistry,
+					   @Value("${order.worker.concurrency:50}") int concurrency) {
+		this.orderRepository = orderRepository;
+		this.outboxEventRepository = outboxEventRepository;
+		this.orderService = orderService;
+		this.inventoryClient = inventoryClient;
+		this.transactionTemplate = transactionTemplate;
+		this.orderPersistenceScheduler = orderPersistenceScheduler;
+		this.slots = new Semaphore(concurrency);
+		this.timeInQueue = Timer.builder("order.queue.time")
+				.description("Time an accepted order waited before a worker claimed it")
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+		Gauge.builder("order.queue.depth", queueDepth, AtomicLong::get)
+				.description("Accepted orders waiting for a worker")
+				.register(meterRegistry);
+	}
+
+	@Scheduled(fixedDelayString = "${order.worker.poll-interval-ms:100}")
+	public void poll() {
+		if (!asyncEnabled) {
+			return;
+		}
+		int capacity = slots.availablePermits();
+		if (capacity > 0) {
+			List<ClaimedOrder> claimed = transactionTemplate.execute(status -> claim(capacity));
+			slots.acquireUninterruptibly(claimed.size());
+			claimed.forEach(this::process);
+		}
+	}
+
+	// A count over t_order, so it runs far less often than the poller
+	@Scheduled(fixedDelayString = "${order.worker.queue-depth-interval-ms:10000}")
+	public void refreshQueueDepth() {
+		if (!asyncEnabled) {
+			return;
+		}
+		queueDepth.set(orderRepository.countByStatus(OrderStatus.PENDING));
+	}
+
+	// An instance that dies mid-order leaves it PROCESSING; hand it back to the queue once the claim has expired
+	@Scheduled(fixedDelayString = "${order.worker.requeue-interval-ms:60000}")
+	public void requeueStale() {
+		if (!asyncEnabled) {
+			return;
+		}
+		Instant now = Instant.now();
+		Integer requeued = transactionTemplate.execute(status -> orderRepository.requeueStale(now.minus(claimTimeout), now));
+		if (requeued != null && requeued > 0) {
+			log.warn("Requeued {} orders whose worker claim expired", requeued);
+		}
+	}
+
+	private List<ClaimedOrder> claim(int limit) {
+		Instant now = Instant.now();
+		List<Long> ids = orderRepository.lockPending(limit);
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		List<Order> orders = orderRepository.findWithLineItemsByIdIn(ids);
+		orders.forEach(order -> {
+			order.setStatus(OrderStatus.PROCESSING);
+			order.setStatusChangedAt(now);
+			timeInQueue.record(Duration.between(order.getCreatedAt(), now));
+		});
+		return orders.stream()
+				.map(order -> new ClaimedOrder(order.getId(), order.getOrderNumber(), orderService.toReservationItems(order)))
+				.toList();
+	}
+
+	private void process(ClaimedOrder order) {
+		inventoryClient.reserve(order.orderNumber(), order.reservationItems())
+				.then(Mono.defer(() -> complete(order)
+						.onErrorResume(e -> inventoryClient.release(order.orderNumber(), order.reservationItems()).onErrorComplete()
+								.then(Mono.error(e)))))
+				.onErrorResume(IllegalArgumentException.class, e -> {
+					log.info("Order {} rejected: {}", order.orderNumber(), e.getMessage());
+					return updateStatus(order, OrderStatus.REJECTED);
+				})
+				.onErrorResume(e -> {
+					log.warn("Order {} failed, returning it to the queue", order.orderNumber(), e);
+					return updateStatus(order, OrderStatus.PENDING);
+				})
+				.doFinally(signal -> slots.release())
+				.subscribe();
+	}
+
+	private Mono<Void> complete(ClaimedOrder order) {
+		return Mono.<Void>fromRunnable(() -> transactionTemplate.executeWithoutResult(status -> {
+					orderRepository.updateStatus(order.id(), OrderStatus.PLACED, Instant.now());
+					outboxEventRepository.save(orderService.toOutboxEvent(new OrderPlacedEvent(order.orderNumber())));
+				}))
+				.subscribeOn(orderPersistenceScheduler);
+	}
+
+	private Mono<Void> updateStatus(ClaimedOrder order, OrderStatus status) {
+		return Mono.<Void>fromRunnable(() -> transactionTemplate.executeWithoutResult(
+						tx -> orderRepository.updateStatus(order.id(), status, Instant.now())))
+				.subscribeOn(orderPersistenceScheduler)
+				.onErrorResume(e -> {
+					log.error("Failed to mark order {} as {}", order.orderNumber(), status, e);
+					return Mono.empty();
+				});
+	}
+
+	private record ClaimedOrder(Long id, String orderNumber, List<ReservationItem> reservationItems) {
+	}
+}
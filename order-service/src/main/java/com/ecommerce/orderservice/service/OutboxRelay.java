@@ -0,0 +1,102 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.orderservice.model.OutboxEvent;
+import com.ecommerce.orderservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class OutboxRelay {
+
+	private final OutboxEventRepository outboxEventRepository;
+	private final KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectMapper objectMapper;
+	private final Counter publishedCounter;
+	private final AtomicLong oldestPendingEpochMilli = new AtomicLong();
+
+	@Value("${order.outbox.batch-size:500}")
+	private int batchSize;
+
+	@Value("${order.outbox.send-timeout-ms:10000}")
+	private long sendTimeoutMs;
+
+	public OutboxRelay(OutboxEventRepository outboxEventRepository,
+					   KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate,
+					   TransactionTemplate transactionTemplate,
+					   ObjectMapper objectMapper,
+					   MeterRegistry meterRegistry) {
+		this.outboxEventRepository = outboxEventRepository;
+		this.kafkaTemplate = kafkaTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.objectMapper = objectMapper;
+		this.publishedCounter = Counter.builder("order.outbox.published")
+				.description("Outbox events published to Kafka")
+				.register(meterRegistry);
+		Gauge.builder("order.outbox.lag", oldestPendingEpochMilli, this::lagSeconds)
+				.description("Age of the oldest outbox event not yet published")
+				.baseUnit("seconds")
+				.register(meterRegistry);
+	}
+
+	@Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:200}")
+	public void relay() {
+		Integer published;
+		do {
+			published = transactionTemplate.execute(status -> publishNextBatch());
+		} while (published != null && published == batchSize);
+	}
+
+	// The batch stays locked until every send is acknowledged; any failure rolls back and the batch is retried
+	private int publishNextBatch() {
+		List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+		if (batch.isEmpty()) {
+			oldestPendingEpochMilli.set(0);
+			return 0;
+		}
+		oldestPendingEpochMilli.set(batch.get(0).getCreatedAt().toEpochMilli());
+
+		CompletableFuture<?>[] sends = batch.stream()
+				.map(event -> kafkaTemplate.send(event.getTopic(), event.getEventKey(), toOrderPlacedEvent(event)))
+				.toArray(CompletableFuture[]::new);
+		try {
+			CompletableFuture.allOf(sends).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+		} catch (Exception e) {
+			throw new IllegalStateException("Failed to publish outbox batch of " + batch.size() + " events", e);
+		}
+
+		outboxEventRepository.deleteAllInBatch(batch);
+		publishedCounter.increment(batch.size());
+		log.debug("Published {} outbox events", batch.size());
+		return batch.size();
+	}
+
+	private OrderPlacedEvent toOrderPlacedEvent(OutboxEvent event) {
+		try {
+			return objectMapper.readValue(event.getPayload(), OrderPlacedEvent.class);
+		} catch (Exception e) {
+			throw new IllegalStateException("Unreadable outbox payload for event " + event.getId(), e);
+		}
+	}
+
+	private double lagSeconds(AtomicLong oldestPending) {
+		long oldest = oldestPending.get();
+		return oldest == 0 ? 0 : (Instant.now().toEpochMilli() - oldest) / 1000.0;
+	}
+}
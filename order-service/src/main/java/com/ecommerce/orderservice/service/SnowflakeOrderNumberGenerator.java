@@ -0,0 +1,47 @@
+package com.ecommerce.orderservice.service;
+
+// Snowflake-style 64-bit id rendered as 13 base32 chars: 41 bits of milliseconds since EPOCH, 10 bits of node id
+// and a 12-bit per-millisecond sequence. Unique as long as every running instance has a distinct node id
+public class SnowflakeOrderNumberGenerator implements OrderNumberGenerator {
+
+	// 2024-01-01T00:00:00Z
+	private static final long EPOCH = 1704067200000L;
+	private static final int NODE_BITS = 10;
+	private static final int SEQUENCE_BITS = 12;
+	public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+	private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+	private final long nodeId;
+	private long lastTimestamp;
+	private long sequence;
+
+	public SnowflakeOrderNumberGenerator(int nodeId) {
+		if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+			throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+		}
+		this.nodeId = nodeId;
+	}
+
+	@Override
+	public String nextOrderNumber() {
+		long id;
+		synchronized (this) {
+			// Never go backwards on a clock step; keep issuing from the last timestamp until the clock catches up
+			long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+			if (timestamp == lastTimestamp) {
+				sequence = (sequence + 1) & MAX_SEQUENCE;
+				if (sequence == 0) {
+					timestamp++;
+				}
+			} else {
+				sequence = 0;
+			}
+			lastTimestamp = timestamp;
+			id = ((timestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+		}
+
+		char[] chars = new char[13];
+		Base32.encode(id, chars, 0, 13);
+		return new String(chars);
+	}
+}
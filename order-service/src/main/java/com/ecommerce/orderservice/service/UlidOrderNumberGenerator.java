@@ -0,0 +1,49 @@
+package com.ecommerce.orderservice.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// 26-char ULID: 48-bit millisecond timestamp followed by 80 random bits. Within the same millisecond the random
+// part is incremented instead of redrawn, so numbers from one instance are strictly increasing. Randomness comes
+// from ThreadLocalRandom; order numbers are identifiers, not secrets, and SecureRandom serialises callers
+public class UlidOrderNumberGenerator implements OrderNumberGenerator {
+
+	private static final long RANDOM_HIGH_MASK = 0xFFFFL;
+
+	private long lastTimestamp;
+	private long randomHigh;
+	private long randomLow;
+
+	@Override
+	public String nextOrderNumber() {
+		long timestamp;
+		long high;
+		long low;
+		synchronized (this) {
+			timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+			if (timestamp == lastTimestamp) {
+				randomLow++;
+				if (randomLow == 0) {
+					randomHigh = (randomHigh + 1) & RANDOM_HIGH_MASK;
+					if (randomHigh == 0) {
+						// 80-bit overflow within one millisecond: borrow the next one
+						timestamp++;
+					}
+				}
+			} else {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				randomHigh = random.nextLong() & RANDOM_HIGH_MASK;
+				randomLow = random.nextLong();
+			}
+			lastTimestamp = timestamp;
+			high = randomHigh;
+			low = randomLow;
+		}
+
+		char[] chars = new char[26];
+		Base32.encode(timestamp, chars, 0, 10);
+		// 80 random bits = 16 high bits + 64 low bits, split into 40-bit halves for encoding
+		Base32.encode((high << 24) | (low >>> 40), chars, 10, 8);
+		Base32.encode(low, chars, 18, 8);
+		return new String(chars);
+	}
+}
@@ -0,0 +1,10 @@
+-- Moves order line items from the t_order_order_line_items_list join table to the order_id column on
+-- t_order_line_items. Stop instances running the old mapping first (they still write to the join table),
+-- start the new version so ddl-auto adds order_id, then run this once.
+
+UPDATE t_order_line_items li
+    JOIN t_order_order_line_items_list j ON j.order_line_items_list_id = li.id
+SET li.order_id = j.order_id
+WHERE li.order_id IS NULL;
+
+DROP TABLE t_order_order_line_items_list;
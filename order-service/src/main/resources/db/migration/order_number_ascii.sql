@@ -0,0 +1,10 @@
+-- Narrows t_order.order_number to varchar(36) character set ascii, which ddl-auto=update leaves alone on an
+-- existing column. Order numbers are ULIDs or legacy UUIDs, so every stored value fits; the first query must
+-- return nothing before the ALTER runs. The ALTER rebuilds the table and uk_order_order_number with it.
+
+SELECT order_number
+FROM t_order
+WHERE CHAR_LENGTH(order_number) > 36 OR order_number <> CONVERT(order_number USING ascii);
+
+ALTER TABLE t_order
+    MODIFY order_number VARCHAR(36) CHARACTER SET ascii;
@@ -0,0 +1,85 @@
+package com.ecommerce.orderservice.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long FAST = Duration.ofMillis(10).toNanos();
+	private static final long SLOW = Duration.ofMillis(500).toNanos();
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AdaptiveConcurrencyLimiter limiter =
+			new AdaptiveConcurrencyLimiter("test", 4, 2, 6, 0.5, Duration.ofMillis(100), meterRegistry);
+
+	@Test
+	void rejectsOnceTheLimitIsInFlight() {
+		for (int i = 0; i < 4; i++) {
+			assertThat(limiter.tryAcquire()).isTrue();
+		}
+
+		assertThat(limiter.tryAcquire()).isFalse();
+		assertThat(meterRegistry.get("order.inventory.limiter.rejected").counter().count()).isEqualTo(1);
+		assertThat(inFlight()).isEqualTo(4);
+	}
+
+	@Test
+	void slowOrDroppedCallsBackOffDownToTheMinimum() {
+		limiter.tryAcquire();
+		limiter.release(SLOW, false);
+		assertThat(limit()).isEqualTo(2);
+
+		limiter.tryAcquire();
+		limiter.release(FAST, true);
+		assertThat(limit()).isEqualTo(2);
+		assertThat(decreases()).isEqualTo(1);
+	}
+
+	@Test
+	void fastCallsGrowTheLimitOnlyWhileItIsWellUsed() {
+		limiter.tryAcquire();
+		limiter.release(FAST, false);
+		assertThat(limit()).isEqualTo(4);
+
+		for (int round = 0; round < 5; round++) {
+			int acquired = 0;
+			while (limiter.tryAcquire()) {
+				acquired++;
+			}
+			for (int i = 0; i < acquired; i++) {
+				limiter.release(FAST, false);
+			}
+		}
+
+		assertThat(limit()).isEqualTo(6);
+		assertThat(meterRegistry.get("order.inventory.limiter.changes").tag("direction", "increase").counter().count())
+				.isEqualTo(2);
+	}
+
+	@Test
+	void cancelFreesTheSlotWithoutASample() {
+		limiter.tryAcquire();
+		limiter.cancel();
+
+		assertThat(inFlight()).isZero();
+		assertThat(limit()).isEqualTo(4);
+		assertThat(decreases()).isZero();
+	}
+
+	private double limit() {
+		return meterRegistry.get("order.inventory.limiter.limit").gauge().value();
+	}
+
+	private double inFlight() {
+		return meterRegistry.get("order.inventory.limiter.in-flight").gauge().value();
+	}
+
+	private double decreases() {
+		return meterRegistry.get("order.inventory.limiter.changes").tag("direction", "decrease").counter().count();
+	}
+}
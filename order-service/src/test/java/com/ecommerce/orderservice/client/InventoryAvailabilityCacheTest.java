@@ -0,0 +1,77 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.event.InventoryChangedEvent;
+import com.ecommerce.orderservice.request.ReservationItem;
+import com.ecommerce.orderservice.response.InventoryResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryAvailabilityCacheTest {
+
+	private final InventoryLookupBatcher inventoryLookupBatcher = mock(InventoryLookupBatcher.class);
+	private final InventoryAvailabilityCache cache =
+			new InventoryAvailabilityCache(mock(InventoryClient.class), inventoryLookupBatcher, new SimpleMeterRegistry());
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(cache, "enabled", true);
+		ReflectionTestUtils.setField(cache, "lookupEnabled", true);
+		ReflectionTestUtils.setField(cache, "maxStaleness", Duration.ofMinutes(1));
+	}
+
+	@Test
+	void beforeTheBootstrapEverySkuIsLookedUpInsteadOfTrustingThePartialView() {
+		cache.apply(new InventoryChangedEvent("SKU-1", 0, false, System.currentTimeMillis()));
+		when(inventoryLookupBatcher.lookup("SKU-1")).thenReturn(Mono.just(stock("SKU-1", 10)));
+
+		assertThat(cache.isClearlyOutOfStock(List.of(new ReservationItem("SKU-1", 2))).block()).isFalse();
+		verify(inventoryLookupBatcher).lookup("SKU-1");
+	}
+
+	@Test
+	void aReadyViewAnswersKnownSkusAndLooksUpOnlyTheRest() {
+		ReflectionTestUtils.setField(cache, "ready", true);
+		cache.apply(new InventoryChangedEvent("SKU-1", 5, false, System.currentTimeMillis()));
+		when(inventoryLookupBatcher.lookup("SKU-2")).thenReturn(Mono.just(stock("SKU-2", 1)));
+
+		assertThat(cache.isClearlyOutOfStock(List.of(new ReservationItem("SKU-1", 2))).block()).isFalse();
+		assertThat(cache.isClearlyOutOfStock(List.of(new ReservationItem("SKU-1", 2), new ReservationItem("SKU-2", 3)))
+				.block()).isTrue();
+		verify(inventoryLookupBatcher, never()).lookup("SKU-1");
+	}
+
+	@Test
+	void unknownSkusAndFailedLookupsDeferToInventoryService() {
+		ReflectionTestUtils.setField(cache, "ready", true);
+		when(inventoryLookupBatcher.lookup("SKU-404")).thenReturn(Mono.empty());
+		when(inventoryLookupBatcher.lookup("SKU-1")).thenReturn(Mono.error(new IllegalStateException("down")));
+
+		assertThat(cache.isClearlyOutOfStock(List.of(new ReservationItem("SKU-404", 1))).block()).isFalse();
+		assertThat(cache.isClearlyOutOfStock(List.of(new ReservationItem("SKU-1", 1))).block()).isFalse();
+	}
+
+	@Test
+	void withBatchingOffAnUnusableViewDefersWithoutALookup() {
+		ReflectionTestUtils.setField(cache, "lookupEnabled", false);
+
+		assertThat(cache.isClearlyOutOfStock(List.of(new ReservationItem("SKU-1", 1))).block()).isFalse();
+		verify(inventoryLookupBatcher, never()).lookup(anyString());
+	}
+
+	private static InventoryResponse stock(String skuCode, int quantity) {
+		return new InventoryResponse(skuCode, quantity, quantity > 0);
+	}
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.orderservice.client;
+
+import com.ecommerce.orderservice.response.InventoryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryLookupBatcherTest {
+
+	private final InventoryClient inventoryClient = mock(InventoryClient.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final InventoryLookupBatcher batcher = new InventoryLookupBatcher(inventoryClient, meterRegistry);
+
+	@Test
+	void lookupsInOneWindowShareARequestAndDuplicatesAreFetchedOnce() {
+		configure(Duration.ofMillis(50), 100);
+		when(inventoryClient.checkStock(anyList())).thenReturn(Mono.just(List.of(stock("SKU-1", 3), stock("SKU-2", 0))));
+
+		Mono<InventoryResponse> first = batcher.lookup("SKU-1");
+		Mono<InventoryResponse> duplicate = batcher.lookup("SKU-1");
+		Mono<InventoryResponse> second = batcher.lookup("SKU-2");
+
+		assertThat(first.block().getQuantity()).isEqualTo(3);
+		assertThat(duplicate.block().getQuantity()).isEqualTo(3);
+		assertThat(second.block().getQuantity()).isZero();
+		verify(inventoryClient, times(1)).checkStock(List.of("SKU-1", "SKU-2"));
+		assertThat(meterRegistry.get("order.inventory.batch.deduplicated").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("order.inventory.batch.size").summary().max()).isEqualTo(2);
+	}
+
+	@Test
+	void aFullBatchIsSentWithoutWaitingForTheWindow() {
+		configure(Duration.ofHours(1), 2);
+		when(inventoryClient.checkStock(anyList())).thenReturn(Mono.just(List.of(stock("SKU-1", 1), stock("SKU-2", 2))));
+
+		Mono<InventoryResponse> first = batcher.lookup("SKU-1");
+		Mono<InventoryResponse> second = batcher.lookup("SKU-2");
+
+		assertThat(first.block(Duration.ofSeconds(5)).getQuantity()).isEqualTo(1);
+		assertThat(second.block(Duration.ofSeconds(5)).getQuantity()).isEqualTo(2);
+	}
+
+	@Test
+	void unknownSkusCompleteEmptyAndFailuresReachEveryCaller() {
+		configure(Duration.ofMillis(50), 100);
+		when(inventoryClient.checkStock(List.of("SKU-404"))).thenReturn(Mono.just(List.of()));
+		assertThat(batcher.lookup("SKU-404").blockOptional()).isEmpty();
+
+		when(inventoryClient.checkStock(List.of("SKU-1", "SKU-2"))).thenReturn(Mono.error(new IllegalStateException("down")));
+		Mono<InventoryResponse> first = batcher.lookup("SKU-1");
+		Mono<InventoryResponse> second = batcher.lookup("SKU-2");
+
+		assertThatThrownBy(first::block).hasMessageContaining("down");
+		assertThatThrownBy(second::block).hasMessageContaining("down");
+	}
+
+	private void configure(Duration window, int maxSize) {
+		ReflectionTestUtils.setField(batcher, "window", window);
+		ReflectionTestUtils.setField(batcher, "maxSize", maxSize);
+	}
+
+	private static InventoryResponse stock(String skuCode, int quantity) {
+		return new InventoryResponse(skuCode, quantity, quantity > 0);
+	}
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.orderservice.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryBudgetTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RetryBudget budget = new RetryBudget(0.1, 3, meterRegistry);
+
+	@Test
+	void startsFullAndRunsDry() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(budget.canRetry()).isTrue();
+			budget.withdraw();
+		}
+
+		assertThat(budget.canRetry()).isFalse();
+		assertThat(meterRegistry.get("order.inventory.retry.budget.denied").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void tenSuccessesEarnOneRetryAtATenPercentRatio() {
+		drain();
+
+		for (int i = 0; i < 9; i++) {
+			budget.recordSuccess();
+			assertThat(budget.canRetry()).isFalse();
+		}
+		budget.recordSuccess();
+		assertThat(budget.canRetry()).isTrue();
+	}
+
+	@Test
+	void successesNeverBankMoreThanTheCap() {
+		drain();
+		for (int i = 0; i < 1_000; i++) {
+			budget.recordSuccess();
+		}
+
+		drain();
+		assertThat(budget.canRetry()).isFalse();
+	}
+
+	private void drain() {
+		for (int i = 0; i < 3; i++) {
+			budget.withdraw();
+		}
+	}
+}
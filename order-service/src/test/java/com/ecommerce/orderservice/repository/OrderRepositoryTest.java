@@ -0,0 +1,127 @@
+package com.ecommerce.orderservice.repository;
+
+import com.ecommerce.orderservice.model.Order;
+import com.ecommerce.orderservice.model.OrderLineItems;
+import com.ecommerce.orderservice.model.OrderStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// H2 in MySQL mode stands in for MySQL; every statement Hibernate prepares is recorded, once per JDBC batch
+@DataJpaTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:orders;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+				+ "com.ecommerce.orderservice.repository.OrderRepositoryTest$RecordingStatementInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OrderRepositoryTest {
+
+	private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void resetCounters() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		STATEMENTS.clear();
+	}
+
+	@Test
+	void lineItemsAreInsertedInOneBatchWithTheirOrderId() {
+		Order order = order(3);
+
+		orderRepository.saveAndFlush(order);
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(4);
+		assertThat(inserts("t_order")).isEqualTo(1);
+		assertThat(inserts("t_order_line_items")).isEqualTo(1);
+		assertThat(STATEMENTS).noneMatch(sql -> sql.contains("t_order_order_line_items_list"));
+		assertThat(STATEMENTS).filteredOn(sql -> sql.startsWith("insert into t_order_line_items"))
+				.singleElement().asString().contains("order_id");
+	}
+
+	@Test
+	void moreLineItemsDoNotAddStatements() {
+		orderRepository.saveAndFlush(order(1));
+		long statementsForOneItem = statistics.getPrepareStatementCount();
+		STATEMENTS.clear();
+		statistics.clear();
+
+		orderRepository.saveAndFlush(order(20));
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(21);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(statementsForOneItem);
+		assertThat(inserts("t_order_line_items")).isEqualTo(1);
+	}
+
+	// 51 rows: at most one pooled sequence call per table and one statement per table, where per-row ids and
+	// unbatched inserts took a round trip each
+	@Test
+	void aFiftyLineItemOrderTakesAtMostFourStatements() {
+		orderRepository.saveAndFlush(order(1));
+		STATEMENTS.clear();
+		statistics.clear();
+
+		orderRepository.saveAndFlush(order(50));
+
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(51);
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+		assertThat(STATEMENTS).hasSizeLessThanOrEqualTo(4);
+		assertThat(STATEMENTS).filteredOn(sql -> sql.contains("_seq")).hasSizeLessThanOrEqualTo(2);
+		assertThat(inserts("t_order")).isEqualTo(1);
+		assertThat(inserts("t_order_line_items")).isEqualTo(1);
+	}
+
+	private static long inserts(String table) {
+		return STATEMENTS.stream()
+				.filter(sql -> sql.startsWith("insert into " + table + " "))
+				.count();
+	}
+
+	private static Order order(int lineItems) {
+		Order order = new Order();
+		order.setOrderNumber("ORD-" + System.nanoTime());
+		order.setCustomerId("customer-1");
+		order.setStatus(OrderStatus.PLACED);
+		order.setCreatedAt(Instant.now());
+		order.setOrderLineItemsList(IntStream.range(0, lineItems)
+				.mapToObj(i -> new OrderLineItems(null, "SKU-" + i, BigDecimal.TEN, 1, order))
+				.toList());
+		return order;
+	}
+
+	public static class RecordingStatementInspector implements StatementInspector {
+
+		@Override
+		public String inspect(String sql) {
+			STATEMENTS.add(sql.toLowerCase(Locale.ROOT).strip());
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.orderservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Plain micro-benchmark of the order number generators: throughput with concurrent callers, and where new numbers
+// land in a unique index on them. Timings are printed, not asserted; the index placement is deterministic
+class OrderNumberGeneratorBenchmarkTest {
+
+	private static final int THREADS = 8;
+	private static final int PER_THREAD = 100_000;
+	private static final int INSERTS = 50_000;
+
+	private final Map<String, OrderNumberGenerator> generators = generators();
+
+	@Test
+	void generatorThroughputWithConcurrentCallers() throws Exception {
+		for (Map.Entry<String, OrderNumberGenerator> generator : generators.entrySet()) {
+			run(generator.getValue());
+			long started = System.nanoTime();
+			long generated = run(generator.getValue());
+			long elapsedNanos = System.nanoTime() - started;
+
+			assertThat(generated).isEqualTo((long) THREADS * PER_THREAD);
+			System.out.printf("%-9s %,12d ids/s with %d threads%n", generator.getKey(),
+					generated * 1_000_000_000L / Math.max(elapsedNanos, 1), THREADS);
+		}
+	}
+
+	// Share of inserts above every key already in the index, i.e. appended to its right-hand leaf page
+	@Test
+	void timeOrderedNumbersAreAppendedAtTheRightEdgeOfTheIndex() throws Exception {
+		Map<String, Double> rightEdge = new LinkedHashMap<>();
+		for (Map.Entry<String, OrderNumberGenerator> generator : generators.entrySet()) {
+			List<String> orderNumbers = new ArrayList<>(INSERTS);
+			for (int i = 0; i < INSERTS; i++) {
+				orderNumbers.add(generator.getValue().nextOrderNumber());
+			}
+			TreeSet<String> index = new TreeSet<>();
+			long appended = orderNumbers.stream().filter(orderNumber -> {
+				boolean last = index.isEmpty() || orderNumber.compareTo(index.last()) > 0;
+				index.add(orderNumber);
+				return last;
+			}).count();
+			rightEdge.put(generator.getKey(), appended / (double) INSERTS);
+
+			long elapsedMillis = insert(generator.getKey(), orderNumbers);
+			System.out.printf("%-9s %5.1f%% appended at the right edge, %,d inserts into H2 in %d ms%n",
+					generator.getKey(), rightEdge.get(generator.getKey()) * 100, INSERTS, elapsedMillis);
+		}
+
+		assertThat(rightEdge.get("ulid")).isEqualTo(1.0);
+		assertThat(rightEdge.get("snowflake")).isEqualTo(1.0);
+		assertThat(rightEdge.get("uuid")).isLessThan(0.01);
+	}
+
+	private static long run(OrderNumberGenerator generator) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int thread = 0; thread < THREADS; thread++) {
+				futures.add(executor.submit(() -> {
+					// Counting what comes back keeps the calls from being optimised away
+					int generated = 0;
+					for (int i = 0; i < PER_THREAD; i++) {
+						if (generator.nextOrderNumber() != null) {
+							generated++;
+						}
+					}
+					return generated;
+				}));
+			}
+			long generated = 0;
+			for (Future<Integer> future : futures) {
+				generated += future.get();
+			}
+			return generated;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	// The shape of t_order's unique key, in an in-memory H2 database per generator
+	private static long insert(String name, List<String> orderNumbers) throws Exception {
+		try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:order_numbers_" + name + ";MODE=MySQL")) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("create table t_order (id bigint auto_increment primary key, "
+						+ "order_number varchar(36) not null, constraint uk_order_order_number unique (order_number))");
+			}
+			connection.setAutoCommit(false);
+			long started = System.nanoTime();
+			try (PreparedStatement insert = connection.prepareStatement("insert into t_order (order_number) values (?)")) {
+				for (int i = 0; i < orderNumbers.size(); i++) {
+					insert.setString(1, orderNumbers.get(i));
+					insert.addBatch();
+					if (i % 500 == 499) {
+						insert.executeBatch();
+						connection.commit();
+					}
+				}
+				insert.executeBatch();
+				connection.commit();
+			}
+			return (System.nanoTime() - started) / 1_000_000;
+		}
+	}
+
+	private static Map<String, OrderNumberGenerator> generators() {
+		Map<String, OrderNumberGenerator> generators = new LinkedHashMap<>();
+		generators.put("uuid", () -> UUID.randomUUID().toString());
+		generators.put("ulid", new UlidOrderNumberGenerator());
+		generators.put("snowflake", new SnowflakeOrderNumberGenerator(1));
+		return generators;
+	}
+}
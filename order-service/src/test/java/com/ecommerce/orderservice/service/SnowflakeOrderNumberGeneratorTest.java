@@ -0,0 +1,68 @@
+package com.ecommerce.orderservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeOrderNumberGeneratorTest {
+
+	private static final String CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+	@Test
+	void isThirteenCrockfordCharacters() {
+		assertThat(new SnowflakeOrderNumberGenerator(7).nextOrderNumber()).matches("[0-9A-HJKMNP-TV-Z]{13}");
+	}
+
+	@Test
+	void carriesTheNodeIdAndTimestamp() {
+		long before = System.currentTimeMillis();
+		long id = decode(new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID).nextOrderNumber());
+		long after = System.currentTimeMillis();
+
+		assertThat((id >>> 12) & SnowflakeOrderNumberGenerator.MAX_NODE_ID).isEqualTo(SnowflakeOrderNumberGenerator.MAX_NODE_ID);
+		assertThat((id >>> 22) + 1704067200000L).isBetween(before, after);
+	}
+
+	@Test
+	void isStrictlyIncreasingPastTheSequenceLimit() {
+		SnowflakeOrderNumberGenerator generator = new SnowflakeOrderNumberGenerator(0);
+		String previous = generator.nextOrderNumber();
+		for (int i = 0; i < 50_000; i++) {
+			String next = generator.nextOrderNumber();
+			assertThat(next).isGreaterThan(previous);
+			previous = next;
+		}
+	}
+
+	@Test
+	void distinctNodesNeverCollide() {
+		SnowflakeOrderNumberGenerator first = new SnowflakeOrderNumberGenerator(1);
+		SnowflakeOrderNumberGenerator second = new SnowflakeOrderNumberGenerator(2);
+		Set<String> seen = new HashSet<>();
+		for (int i = 0; i < 20_000; i++) {
+			seen.add(first.nextOrderNumber());
+			seen.add(second.nextOrderNumber());
+		}
+
+		assertThat(seen).hasSize(40_000);
+	}
+
+	@Test
+	void rejectsNodeIdsOutOfRange() {
+		assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(-1)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new SnowflakeOrderNumberGenerator(SnowflakeOrderNumberGenerator.MAX_NODE_ID + 1))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static long decode(String chars) {
+		long value = 0;
+		for (char c : chars.toCharArray()) {
+			value = (value << 5) | CROCKFORD.indexOf(c);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.orderservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UlidOrderNumberGeneratorTest {
+
+	private static final String CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+	private final UlidOrderNumberGenerator generator = new UlidOrderNumberGenerator();
+
+	@Test
+	void isTwentySixCrockfordCharacters() {
+		assertThat(generator.nextOrderNumber()).hasSize(26).matches("[0-9A-HJKMNP-TV-Z]{26}");
+	}
+
+	@Test
+	void startsWithTheCurrentTimestamp() {
+		long before = System.currentTimeMillis();
+		String orderNumber = generator.nextOrderNumber();
+		long after = System.currentTimeMillis();
+
+		assertThat(decode(orderNumber.substring(0, 10))).isBetween(before, after);
+	}
+
+	@Test
+	void isStrictlyIncreasingWithinAndAcrossMilliseconds() {
+		String previous = generator.nextOrderNumber();
+		for (int i = 0; i < 100_000; i++) {
+			String next = generator.nextOrderNumber();
+			assertThat(next).isGreaterThan(previous);
+			previous = next;
+		}
+	}
+
+	@Test
+	void isUniqueAcrossThreads() throws Exception {
+		Set<String> seen = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				futures.add(executor.submit(() -> IntStream.range(0, 20_000)
+						.forEach(i -> seen.add(generator.nextOrderNumber()))));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(seen).hasSize(160_000);
+	}
+
+	private static long decode(String chars) {
+		long value = 0;
+		for (char c : chars.toCharArray()) {
+			value = (value << 5) | CROCKFORD.indexOf(c);
+		}
+		return value;
+	}
+}